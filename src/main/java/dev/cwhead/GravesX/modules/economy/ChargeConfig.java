@@ -1,24 +1,66 @@
 package dev.cwhead.GravesX.modules.economy;
 
+import com.ranull.graves.type.Grave;
+import dev.cwhead.GravesX.modules.economy.currency.CurrencySpec;
+import dev.cwhead.GravesX.modules.economy.limit.LimitPolicy;
+import dev.cwhead.GravesX.modules.economy.limit.ThrottlePolicy;
+import dev.cwhead.GravesX.modules.economy.revenue.RevenuePolicy;
+import dev.cwhead.GravesX.modules.economy.util.I18n;
+import dev.cwhead.GravesX.modules.economy.util.MessageDelivery;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.EnumMap;
 import java.util.Locale;
+import java.util.logging.Logger;
 
 /**
  * Handles charge computation and rounding for GravesX economy actions.
  */
 public final class ChargeConfig {
 
-    public enum Mode { FIXED, PERCENT_BALANCE }
+    public enum Mode { FIXED, PERCENT_BALANCE, GRAVE_VALUE }
     public enum Type { TELEPORT, OPEN, AUTOLOOT, BLOCK_BREAK }
+    public enum StartupPolicy { BILL_LATER, FREE, DENY }
 
     private final FileConfiguration cfg;
+    private final GraveValueTable graveValues;
+    private final EnumMap<Type, CurrencySpec> currencies = new EnumMap<>(Type.class);
+    private final LimitPolicy limits;
+    private final ThrottlePolicy throttle;
+    private final RevenuePolicy revenue;
+    private final MessageDelivery.Channels channels;
 
-    public ChargeConfig(FileConfiguration cfg) {
+    /**
+     * @param cfg    module config
+     * @param logger receives a warning for each type referencing an undefined currency id
+     */
+    public ChargeConfig(FileConfiguration cfg, Logger logger) {
         this.cfg = cfg;
+        this.graveValues = GraveValueTable.compile(cfg.getConfigurationSection("grave-value"));
+        this.limits = LimitPolicy.compile(cfg.getConfigurationSection("limits"));
+        this.throttle = ThrottlePolicy.compile(cfg.getConfigurationSection("throttle"));
+        this.channels = MessageDelivery.Channels.compile(cfg.getConfigurationSection("messages"));
+
+        CurrencySpec fallback = new CurrencySpec(CurrencySpec.DEFAULT_ID, CurrencySpec.Kind.VAULT, "", currency(), rounding());
+        ConfigurationSection defined = cfg.getConfigurationSection("currencies");
+        for (Type t : Type.values()) {
+            String id = cfg.getString(path(t, "currency"), CurrencySpec.DEFAULT_ID);
+            ConfigurationSection section = (defined == null || id == null) ? null : defined.getConfigurationSection(id);
+            if (section != null) {
+                currencies.put(t, CurrencySpec.parse(id, section, fallback));
+            } else if (id == null || id.equals(CurrencySpec.DEFAULT_ID)) {
+                currencies.put(t, fallback);
+            } else {
+                logger.warning("[Economy-Vault] types." + t.name() + ".currency: '" + id
+                        + "' is not defined under currencies; " + t.name() + " charges will be cancelled.");
+                currencies.put(t, CurrencySpec.undefined(id, fallback));
+            }
+        }
+        this.revenue = RevenuePolicy.compile(cfg.getConfigurationSection("revenue"), t -> currencies.get(t).id());
     }
 
     /** Is this charge type enabled? */
@@ -36,6 +78,95 @@ public final class ChargeConfig {
         return cfg.getString("economy.currency-symbol", "$");
     }
 
+    /** Whether to probe the Vault provider's working overloads when it is hooked */
+    public boolean probeProvider() {
+        return cfg.getBoolean("economy.probe-provider", true);
+    }
+
+    /** Currency a type is charged in; an undefined id yields a {@link CurrencySpec.Kind#UNDEFINED} spec. */
+    public CurrencySpec currencySpec(Type t) {
+        return currencies.get(t);
+    }
+
+    /** Currency symbol for a type */
+    public String currency(Type t) {
+        return currencies.get(t).symbol();
+    }
+
+    /** What to do with actions that happen before an economy provider is hooked */
+    public StartupPolicy startupPolicy() {
+        try {
+            return StartupPolicy.valueOf(cfg.getString("startup.policy", "BILL_LATER").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return StartupPolicy.BILL_LATER;
+        }
+    }
+
+    /** Maximum number of charges kept for {@link StartupPolicy#BILL_LATER} */
+    public int startupQueueCapacity() {
+        return Math.max(0, cfg.getInt("startup.max-queued", 1024));
+    }
+
+    /** Per-player spending caps and free uses; rebuilt on every reload. */
+    public LimitPolicy limits() {
+        return limits;
+    }
+
+    /** Seconds between asynchronous snapshots of the spending counters */
+    public long limitSnapshotInterval() {
+        return Math.max(10L, cfg.getLong("limits.snapshot-interval", 300L));
+    }
+
+    /** Per-player attempt throttle and insufficient-funds cache; rebuilt on every reload. */
+    public ThrottlePolicy throttle() {
+        return throttle;
+    }
+
+    /** Time budget per tick for deferred side work (messages, debug output), in nanoseconds */
+    public long sideWorkBudgetNanos() {
+        return Math.max(1L, cfg.getLong("side-work.tick-budget-micros", 500L)) * 1000L;
+    }
+
+    /** Where collected fees are paid; rebuilt on every reload. */
+    public RevenuePolicy revenue() {
+        return revenue;
+    }
+
+    /** Seconds between revenue deposits (read at enable only) */
+    public long revenueFlushInterval() {
+        return Math.max(1L, cfg.getLong("revenue.flush-interval", 60L));
+    }
+
+    /** Seconds between saving outstanding revenue to disk (read at enable only) */
+    public long revenueSaveInterval() {
+        return Math.max(1L, cfg.getLong("revenue.save-interval", 10L));
+    }
+
+    /** Whether to register the built-in ledger economy when no Vault provider exists (read at enable only) */
+    public boolean ledgerEnabled() {
+        return cfg.getBoolean("ledger.enabled", false);
+    }
+
+    /** Seconds between appending ledger changes to its log */
+    public long ledgerFlushInterval() {
+        return Math.max(1L, cfg.getLong("ledger.flush-interval", 5L));
+    }
+
+    /** Seconds between folding the ledger log into a fresh snapshot */
+    public long ledgerCompactInterval() {
+        return Math.max(60L, cfg.getLong("ledger.compact-interval", 900L));
+    }
+
+    /** Markup used by the language files */
+    public I18n.Format messageFormat() {
+        return I18n.Format.of(cfg.getString("messages.format", "LEGACY"));
+    }
+
+    /** Delivery channel per message key */
+    public MessageDelivery.Channels messageChannels() {
+        return channels;
+    }
+
     /** Returns the charge mode for a given type */
     public Mode getMode(Type t) {
         return Mode.valueOf(cfg.getString(path(t, "charge.mode"), "FIXED").toUpperCase(Locale.ROOT));
@@ -49,8 +180,21 @@ public final class ChargeConfig {
         return cfg.getBoolean(path(Type.TELEPORT, "charge.per-block"), false);
     }
 
+    /** Value table used by {@link Mode#GRAVE_VALUE}; rebuilt on every reload. */
+    public GraveValueTable graveValues() {
+        return graveValues;
+    }
+
     /** Compute the cost for a given player and type */
     public double computeCost(Type t, Player p, double balance) {
+        return computeCost(t, p, balance, null);
+    }
+
+    /**
+     * Compute the cost for a given player and type. The grave is only inspected
+     * when the type is in {@link Mode#GRAVE_VALUE} mode; it may be {@code null} otherwise.
+     */
+    public double computeCost(Type t, Player p, double balance, Grave grave) {
         Mode mode = getMode(t);
         return switch (mode) {
             case FIXED -> Math.max(0.0, cfg.getDouble(path(t, "charge.fixed"), 0.0));
@@ -58,6 +202,10 @@ public final class ChargeConfig {
                 double pct = cfg.getDouble(path(t, "charge.percent"), 0.0);
                 yield Math.max(0.0, balance * (pct / 100.0));
             }
+            case GRAVE_VALUE -> {
+                double pct = cfg.getDouble(path(t, "charge.grave-percent"), 0.0);
+                yield Math.max(0.0, graveValues.valueOf(grave) * (pct / 100.0));
+            }
         };
     }
 
@@ -68,7 +216,15 @@ public final class ChargeConfig {
 
     /** Format a number using rounding */
     public String fmt(double d) {
-        int places = rounding();
+        return fmt(d, rounding());
+    }
+
+    /** Format a number using the rounding of the type's currency */
+    public String fmt(Type t, double d) {
+        return fmt(d, currencies.get(t).rounding());
+    }
+
+    private static String fmt(double d, int places) {
         BigDecimal bd = new BigDecimal(d).setScale(places, RoundingMode.HALF_UP);
         return bd.stripTrailingZeros().toPlainString();
     }
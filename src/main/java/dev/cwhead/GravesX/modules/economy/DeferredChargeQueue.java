@@ -0,0 +1,213 @@
+package dev.cwhead.GravesX.modules.economy;
+
+import dev.cwhead.GravesX.modules.economy.currency.CurrencyProvider;
+import dev.cwhead.GravesX.modules.economy.limit.LimitPolicy;
+import dev.cwhead.GravesX.modules.economy.limit.SpendingLimits;
+import dev.cwhead.GravesX.modules.economy.revenue.RevenueCollector;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Bounded queue of charges deferred while no economy provider is hooked
+ * ({@code startup.policy: BILL_LATER}).
+ * <p>
+ * Entries are stored in parallel primitive arrays (UUID halves, type ordinal,
+ * amount) so a login burst does not allocate per action. The whole queue is
+ * settled in one batch once the economy registers.
+ * </p>
+ * <p>
+ * Spending limits are applied when a charge is queued. Known amounts are recorded
+ * then; balance fractions are checked against {@code max-spend} (if the player is
+ * online) and recorded at settle time. Nothing is recorded while limits are disabled.
+ * </p>
+ * <p>
+ * Charges still queued at shutdown are written by {@link #save(File)} and billed
+ * after the next start via {@link #load(File)}.
+ * </p>
+ */
+final class DeferredChargeQueue {
+
+    private static final ChargeConfig.Type[] TYPES = ChargeConfig.Type.values();
+    /** Flag bit in {@link #flags}: amount is a fraction of the balance at settle time. */
+    private static final byte OF_BALANCE = (byte) 0x80;
+    /** Flag bit in {@link #flags}: the amount was already recorded in the spending limits. */
+    private static final byte RECORDED = 0x40;
+    private static final int TYPE_MASK = 0x3F;
+    private static final int MAGIC = 0x47584443; // "GXDC"
+
+    private final long[] uuidMost;
+    private final long[] uuidLeast;
+    private final byte[] flags;
+    private final double[] amounts;
+    private final RevenueCollector revenue;
+    private final SpendingLimits spending;
+    private int size;
+
+    /**
+     * @param capacity maximum number of deferred charges; further offers are rejected
+     * @param revenue  receives the amounts collected at settle time
+     * @param spending records the amounts collected at settle time
+     */
+    DeferredChargeQueue(int capacity, RevenueCollector revenue, SpendingLimits spending) {
+        this.revenue = revenue;
+        this.spending = spending;
+        int cap = Math.max(0, capacity);
+        this.uuidMost = new long[cap];
+        this.uuidLeast = new long[cap];
+        this.flags = new byte[cap];
+        this.amounts = new double[cap];
+    }
+
+    /**
+     * Records a charge to settle later.
+     *
+     * @param player    player to bill
+     * @param type      charge type (selects the currency at settle time)
+     * @param amount    absolute amount, or a balance fraction when {@code ofBalance} is set
+     * @param ofBalance whether {@code amount} is a fraction of the player's balance
+     * @param recorded  whether the caller already recorded {@code amount} in the spending limits
+     * @return {@code false} when the queue is full
+     */
+    synchronized boolean offer(UUID player, ChargeConfig.Type type, double amount, boolean ofBalance, boolean recorded) {
+        if (size >= amounts.length) return false;
+        uuidMost[size] = player.getMostSignificantBits();
+        uuidLeast[size] = player.getLeastSignificantBits();
+        flags[size] = (byte) (type.ordinal() | (ofBalance ? OF_BALANCE : 0) | (recorded ? RECORDED : 0));
+        amounts[size] = amount;
+        size++;
+        return true;
+    }
+
+    /** Number of charges waiting to be settled. */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Withdraws every deferred charge through the runtime's current providers
+     * and empties the queue. Charges that cannot be collected are logged and dropped.
+     */
+    void settle(EconomyRuntime runtime, Logger logger) {
+        long[] most;
+        long[] least;
+        byte[] fl;
+        double[] amt;
+        int n;
+        synchronized (this) {
+            n = size;
+            if (n == 0) return;
+            most = Arrays.copyOf(uuidMost, n);
+            least = Arrays.copyOf(uuidLeast, n);
+            fl = Arrays.copyOf(flags, n);
+            amt = Arrays.copyOf(amounts, n);
+            size = 0;
+        }
+
+        ChargeConfig cfg = runtime.get();
+        LimitPolicy limits = cfg.limits();
+        int failed = 0;
+        for (int i = 0; i < n; i++) {
+            ChargeConfig.Type type = TYPES[fl[i] & TYPE_MASK];
+            CurrencyProvider provider = runtime.provider(type);
+            UUID id = new UUID(most[i], least[i]);
+            OfflinePlayer p = Bukkit.getOfflinePlayer(id);
+
+            if (provider == null) {
+                failed++;
+                logger.warning("[Economy-Vault] Dropped deferred " + type + " charge for " + p.getUniqueId()
+                        + ": currency '" + cfg.currencySpec(type).id() + "' is not available.");
+                continue;
+            }
+
+            boolean ofBalance = (fl[i] & OF_BALANCE) != 0;
+            double amount = ofBalance ? provider.getBalance(p) * amt[i] : amt[i];
+            if (!(amount > 0.0)) continue;
+
+            Player online = ofBalance && limits.isEnabled() ? Bukkit.getPlayer(id) : null;
+            if (online != null && spending.check(limits, online, type, amount) == SpendingLimits.Decision.OVER_LIMIT) {
+                logger.info("[Economy-Vault] Skipped deferred " + type + " charge of " + cfg.fmt(type, amount)
+                        + " for " + id + ": spending limit reached.");
+                continue;
+            }
+
+            EconomyResponse r = provider.withdraw(p, amount);
+            if (!r.transactionSuccess()) {
+                failed++;
+                logger.warning("[Economy-Vault] Could not settle deferred " + type + " charge of "
+                        + cfg.fmt(type, amount) + " for " + p.getUniqueId() + ": " + r.errorMessage);
+                continue;
+            }
+            if (limits.isEnabled() && (fl[i] & RECORDED) == 0) spending.record(limits, id, type, amount);
+            revenue.collect(cfg.revenue(), type, r.amount);
+        }
+
+        logger.info("[Economy-Vault] Settled " + (n - failed) + "/" + n + " charges deferred during startup.");
+    }
+
+    /**
+     * Writes the queued charges to {@code file} via a temporary file and an atomic
+     * move, or deletes it when nothing is queued.
+     */
+    synchronized void save(File file) throws IOException {
+        if (size == 0) {
+            Files.deleteIfExists(file.toPath());
+            return;
+        }
+        File folder = file.getParentFile();
+        if (folder != null && !folder.exists()) folder.mkdirs();
+
+        File tmp = new File(folder, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(uuidMost[i]);
+                out.writeLong(uuidLeast[i]);
+                out.writeByte(flags[i]);
+                out.writeDouble(amounts[i]);
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Queues the charges written by {@link #save(File)} and deletes the file, so a
+     * later crash can never bill them twice. Missing files are ignored.
+     *
+     * @return number of saved charges that did not fit and were dropped
+     */
+    synchronized int load(File file) throws IOException {
+        if (!file.isFile()) return 0;
+        int dropped = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Unrecognised deferred charge snapshot: " + file.getName());
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                byte flag = in.readByte();
+                double amount = in.readDouble();
+                int type = flag & TYPE_MASK;
+                if (type >= TYPES.length
+                        || !offer(id, TYPES[type], amount, (flag & OF_BALANCE) != 0, (flag & RECORDED) != 0)) dropped++;
+            }
+        }
+        Files.delete(file.toPath());
+        return dropped;
+    }
+}
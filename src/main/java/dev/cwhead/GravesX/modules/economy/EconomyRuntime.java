@@ -1,16 +1,105 @@
 package dev.cwhead.GravesX.modules.economy;
 
+import dev.cwhead.GravesX.modules.economy.currency.CurrencyProvider;
+import dev.cwhead.GravesX.modules.economy.currency.CurrencyProviders;
+import dev.cwhead.GravesX.modules.economy.currency.VaultCapabilities;
+import dev.cwhead.GravesX.modules.economy.currency.VaultCurrencyProvider;
+import net.milkbowl.vault.economy.Economy;
+
+import java.util.EnumMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
 /**
  * Runtime wrapper for ChargeConfig.
+ * <p>
+ * Also holds the per-type {@link CurrencyProvider} handles. They are resolved
+ * when the Vault economy is bound and again whenever a new config is set, so
+ * the charge path only does an {@link EnumMap} read. The provider's
+ * {@link VaultCapabilities} are probed when an economy is bound; a reload only
+ * probes again if the bound economy or {@code economy.probe-provider} changed,
+ * since every probe makes real transactions on the sentinel account.
+ * </p>
  */
 public final class EconomyRuntime {
-    private ChargeConfig cfg;
+    private final Logger logger;
+    private final Executor globalThread;
+    private volatile ChargeConfig cfg;
+    private volatile Economy economy;
+    /** Economy {@link #capabilities} were probed for, and whether probing was enabled then. */
+    private Economy probedEconomy;
+    private boolean probedEnabled;
+    private VaultCapabilities capabilities = VaultCapabilities.UNKNOWN;
+    private volatile EnumMap<ChargeConfig.Type, CurrencyProvider> providers = new EnumMap<>(ChargeConfig.Type.class);
 
-    public EconomyRuntime(ChargeConfig cfg) { this.cfg = cfg; }
+    /**
+     * @param globalThread runs provider re-probes (main / global region thread)
+     */
+    public EconomyRuntime(ChargeConfig cfg, Logger logger, Executor globalThread) {
+        this.cfg = cfg;
+        this.logger = logger;
+        this.globalThread = globalThread;
+    }
 
     public ChargeConfig get() { return cfg; }
 
     public void set(ChargeConfig cfg) {
         this.cfg = cfg;
+        Economy bound = this.economy;
+        if (bound != null) resolveProviders(bound, capabilitiesFor(bound));
+    }
+
+    /**
+     * Binds the hooked Vault economy, probes it (unless it was already probed with the
+     * same setting) and resolves every type's currency provider.
+     *
+     * @return the probe result ({@link VaultCapabilities#UNKNOWN} when probing is disabled)
+     */
+    public VaultCapabilities bind(Economy economy) {
+        VaultCapabilities capabilities = capabilitiesFor(economy);
+        // Resolve first so a concurrent charge never sees "hooked" with no providers.
+        resolveProviders(economy, capabilities);
+        this.economy = economy;
+        return capabilities;
+    }
+
+    /** Drops the economy and all providers after the Vault provider unregisters. */
+    public void unbind() {
+        this.economy = null;
+        this.providers = new EnumMap<>(ChargeConfig.Type.class);
+    }
+
+    /** Whether a Vault economy is currently bound. */
+    public boolean isHooked() {
+        return economy != null;
+    }
+
+    /** The hooked Vault economy, or {@code null} before hooking. */
+    public Economy economy() {
+        return economy;
+    }
+
+    /** Provider for the type's currency, or {@code null} if it is unavailable. */
+    public CurrencyProvider provider(ChargeConfig.Type type) {
+        return providers.get(type);
+    }
+
+    private synchronized VaultCapabilities capabilitiesFor(Economy economy) {
+        boolean enabled = cfg.probeProvider();
+        if (economy == probedEconomy && enabled == probedEnabled) {
+            // Prefer what a live provider has re-probed since (see VaultCurrencyProvider).
+            for (CurrencyProvider p : providers.values()) {
+                if (p instanceof VaultCurrencyProvider v && v.economy() == economy) return v.capabilities();
+            }
+            return capabilities;
+        }
+        this.capabilities = enabled ? VaultCapabilities.probe(economy, logger) : VaultCapabilities.UNKNOWN;
+        this.probedEconomy = economy;
+        this.probedEnabled = enabled;
+        return capabilities;
+    }
+
+    private void resolveProviders(Economy economy, VaultCapabilities capabilities) {
+        this.providers = CurrencyProviders.resolve(cfg, economy, capabilities, "GravesX", globalThread, logger);
     }
-}
\ No newline at end of file
+}
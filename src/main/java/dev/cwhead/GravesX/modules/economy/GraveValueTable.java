@@ -0,0 +1,141 @@
+package dev.cwhead.GravesX.modules.economy;
+
+import com.ranull.graves.type.Grave;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.EnchantmentStorageMeta;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Precomputed per-{@link Material} value table used by the {@code GRAVE_VALUE} charge mode.
+ * <p>
+ * The {@code grave-value} config section is compiled once per (re)load into a primitive
+ * array indexed by {@link Material#ordinal()}, so pricing an item is a single array read.
+ * Grave values are cached by grave UUID for {@link #TTL_NANOS}. Entries are dropped
+ * when a grave is looted, broken or its inventory is closed (partial looting), expire
+ * on their own for graves that time out, and the cache never holds more than
+ * {@link #MAX_ENTRIES}. A reload builds a new table, which also drops every cached value.
+ * </p>
+ */
+public final class GraveValueTable {
+
+    /** How long a computed grave value is reused. */
+    static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+    /** Upper bound on cached grave values. */
+    static final int MAX_ENTRIES = 4096;
+
+    private record Cached(double value, long expiresAt) {
+    }
+
+    /** Item value per material, indexed by {@link Material#ordinal()}. */
+    private final double[] values;
+    /** Fraction of an item's base value added per enchantment level. */
+    private final double enchantmentMultiplier;
+    /** Value of each experience point stored in a grave. */
+    private final double experienceMultiplier;
+    /** Computed grave values keyed by grave UUID. */
+    private final Map<UUID, Cached> cache = new ConcurrentHashMap<>();
+
+    private GraveValueTable(double[] values, double enchantmentMultiplier, double experienceMultiplier) {
+        this.values = values;
+        this.enchantmentMultiplier = enchantmentMultiplier;
+        this.experienceMultiplier = experienceMultiplier;
+    }
+
+    /**
+     * Compiles the {@code grave-value} section into a lookup table.
+     * Unknown material names are ignored; negative values are clamped to zero.
+     *
+     * @param section the {@code grave-value} section, may be {@code null}
+     * @return compiled table (all zero when the section is missing)
+     */
+    public static GraveValueTable compile(ConfigurationSection section) {
+        double[] values = new double[Material.values().length];
+        if (section == null) return new GraveValueTable(values, 0.0, 0.0);
+
+        Arrays.fill(values, Math.max(0.0, section.getDouble("default", 0.0)));
+
+        ConfigurationSection materials = section.getConfigurationSection("materials");
+        if (materials != null) {
+            for (String key : materials.getKeys(false)) {
+                Material m = Material.matchMaterial(key.toUpperCase(Locale.ROOT));
+                if (m == null) continue;
+                values[m.ordinal()] = Math.max(0.0, materials.getDouble(key, 0.0));
+            }
+        }
+
+        return new GraveValueTable(values,
+                Math.max(0.0, section.getDouble("enchantment-multiplier", 0.0)),
+                Math.max(0.0, section.getDouble("experience-multiplier", 0.0)));
+    }
+
+    /**
+     * Returns the total value of a grave's items and stored experience,
+     * serving it from cache while the cached value has not expired.
+     *
+     * @param grave grave to value, may be {@code null}
+     * @return grave value (0 when unknown)
+     */
+    public double valueOf(Grave grave) {
+        if (grave == null) return 0.0;
+        UUID id = grave.getUUID();
+        if (id == null) return compute(grave);
+
+        long now = System.nanoTime();
+        Cached cached = cache.get(id);
+        if (cached != null && now - cached.expiresAt() < 0L) return cached.value();
+
+        double value = compute(grave);
+        if (cache.size() >= MAX_ENTRIES) evict(now);
+        cache.put(id, new Cached(value, now + TTL_NANOS));
+        return value;
+    }
+
+    private void evict(long now) {
+        cache.values().removeIf(c -> now - c.expiresAt() >= 0L);
+        if (cache.size() >= MAX_ENTRIES) cache.clear();
+    }
+
+    /** Drops the cached value for a grave (e.g. once it has been looted, broken or its inventory closed). */
+    public void invalidate(Grave grave) {
+        if (grave == null || grave.getUUID() == null) return;
+        cache.remove(grave.getUUID());
+    }
+
+    private double compute(Grave grave) {
+        double total = 0.0;
+
+        Inventory inv = grave.getInventory();
+        if (inv != null) {
+            for (ItemStack item : inv.getContents()) {
+                if (item == null || item.getType().isAir()) continue;
+                total += itemValue(item);
+            }
+        }
+
+        total += Math.max(0, grave.getExperience()) * experienceMultiplier;
+        return total;
+    }
+
+    private double itemValue(ItemStack item) {
+        double base = values[item.getType().ordinal()] * item.getAmount();
+        if (!(base > 0.0) || !(enchantmentMultiplier > 0.0)) return base;
+
+        int levels = 0;
+        for (int level : item.getEnchantments().values()) levels += level;
+
+        if (item.hasItemMeta() && item.getItemMeta() instanceof EnchantmentStorageMeta stored) {
+            for (int level : stored.getStoredEnchants().values()) levels += level;
+        }
+
+        return base * (1.0 + enchantmentMultiplier * levels);
+    }
+}
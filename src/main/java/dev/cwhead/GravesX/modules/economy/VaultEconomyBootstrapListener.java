@@ -1,51 +1,119 @@
 package dev.cwhead.GravesX.modules.economy;
 
+import dev.cwhead.GravesX.modules.economy.ledger.LedgerEconomy;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.server.ServiceRegisterEvent;
+import org.bukkit.event.server.ServiceUnregisterEvent;
+
+import java.util.logging.Logger;
 
 /**
  * Listener that waits for a Vault {@link Economy} provider to be registered,
  * then invokes a supplied callback. Useful when Vault loads before the economy
  * plugin registers its service.
+ * <p>
+ * Stays registered for the lifetime of the module: it also reports when the
+ * bound provider unregisters, and after every successful hook it settles the
+ * charges deferred while no provider was available in one batch. A real
+ * economy registering while the built-in {@link LedgerEconomy} is bound
+ * replaces the ledger.
+ * </p>
  */
 final class VaultEconomyBootstrapListener implements Listener {
 
     /**
-     * Callback invoked once an {@link Economy} service is observed.
+     * Callback invoked when an {@link Economy} service appears or disappears.
      */
     interface HookCallback {
         /**
          * Called when a Vault Economy provider becomes available.
          */
         void hooked();
+
+        /**
+         * Called when a Vault Economy provider is unregistered.
+         *
+         * @param provider the provider that went away
+         */
+        void lost(Economy provider);
+
+        /**
+         * Called when a real Vault Economy provider registers while the built-in
+         * ledger is bound.
+         *
+         * @param provider the newly registered provider
+         */
+        void replaced(Economy provider);
     }
 
     /** Callback to run after hook detection. */
     private final HookCallback callback;
+    /** Runtime checked for the hook state. */
+    private final EconomyRuntime runtime;
+    /** Charges deferred before the hook. */
+    private final DeferredChargeQueue deferred;
+    /** Logger for the settlement summary. */
+    private final Logger logger;
 
     /**
      * Creates a bootstrap listener that triggers the given callback when an
      * {@link Economy} service is registered.
      *
      * @param callback action to run once hooked
+     * @param runtime  shared runtime used to check whether the economy is bound
+     * @param deferred queue settled after each successful hook
+     * @param logger   module logger
      */
-    VaultEconomyBootstrapListener(HookCallback callback) {
+    VaultEconomyBootstrapListener(HookCallback callback, EconomyRuntime runtime,
+                                  DeferredChargeQueue deferred, Logger logger) {
         this.callback = callback;
+        this.runtime = runtime;
+        this.deferred = deferred;
+        this.logger = logger;
     }
 
     /**
      * Monitors newly registered services and triggers the callback when the
-     * service type is {@link Economy}.
+     * service type is {@link Economy} and no provider is bound yet, or when a
+     * real provider arrives while only the built-in ledger is bound.
      *
      * @param e service registration event
      */
     @EventHandler(priority = EventPriority.MONITOR)
     public void onServiceRegister(ServiceRegisterEvent e) {
-        if (e.getProvider().getService() == Economy.class) {
+        if (e.getProvider().getService() != Economy.class) return;
+
+        if (!runtime.isHooked()) {
             callback.hooked();
+        } else if (runtime.economy() instanceof LedgerEconomy
+                && !(e.getProvider().getProvider() instanceof LedgerEconomy)) {
+            callback.replaced((Economy) e.getProvider().getProvider());
+        } else {
+            return;
         }
+        settle();
+    }
+
+    /**
+     * Reports the bound {@link Economy} going away so the module can fall back
+     * to its startup policy until a provider is available again.
+     *
+     * @param e service unregistration event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onServiceUnregister(ServiceUnregisterEvent e) {
+        if (e.getProvider().getService() != Economy.class) return;
+        if (e.getProvider().getProvider() != runtime.economy()) return;
+
+        callback.lost((Economy) e.getProvider().getProvider());
+        settle();
+    }
+
+    /** Settles deferred charges if the economy is (still or again) bound. */
+    void settle() {
+        if (runtime.isHooked()) deferred.settle(runtime, logger);
     }
-}
\ No newline at end of file
+}
@@ -3,20 +3,32 @@ package dev.cwhead.GravesX.modules.economy;
 import com.ranull.graves.Graves;
 import com.ranull.graves.type.Grave;
 import dev.cwhead.GravesX.event.*;
+import dev.cwhead.GravesX.modules.economy.currency.CurrencyProvider;
+import dev.cwhead.GravesX.modules.economy.jfr.ChargeDecisionEvent;
+import dev.cwhead.GravesX.modules.economy.limit.AttemptThrottle;
+import dev.cwhead.GravesX.modules.economy.limit.LimitPolicy;
+import dev.cwhead.GravesX.modules.economy.limit.SpendingLimits;
+import dev.cwhead.GravesX.modules.economy.limit.ThrottlePolicy;
+import dev.cwhead.GravesX.modules.economy.revenue.RevenueCollector;
 import dev.cwhead.GravesX.modules.economy.util.I18n;
-import net.milkbowl.vault.economy.Economy;
+import dev.cwhead.GravesX.modules.economy.util.MessageDelivery;
+import dev.cwhead.GravesX.modules.economy.util.SideWorkQueue;
+import net.kyori.adventure.text.Component;
 import net.milkbowl.vault.economy.EconomyResponse;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.permissions.PermissionAttachmentInfo;
 
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.OptionalDouble;
+import java.util.function.Supplier;
 
 /**
  * Listener to charge players for GravesX actions using Vault and I18n messages.
@@ -24,15 +36,26 @@ import java.util.OptionalDouble;
 public final class VaultEconomyListener implements Listener {
 
     private final Graves plugin;
-    private final Economy economy;
     private final EconomyRuntime runtime;
     private final I18n i18n;
-
-    public VaultEconomyListener(Graves plugin, Economy economy, EconomyRuntime runtime, I18n i18n) {
+    private final DeferredChargeQueue deferred;
+    private final SpendingLimits spending;
+    private final SideWorkQueue sideWork;
+    private final AttemptThrottle throttle;
+    private final RevenueCollector revenue;
+    private final MessageDelivery delivery = new MessageDelivery();
+
+    public VaultEconomyListener(Graves plugin, EconomyRuntime runtime, I18n i18n,
+                                DeferredChargeQueue deferred, SpendingLimits spending, SideWorkQueue sideWork,
+                                AttemptThrottle throttle, RevenueCollector revenue) {
         this.plugin = plugin;
-        this.economy = economy;
         this.runtime = runtime;
         this.i18n = i18n;
+        this.deferred = deferred;
+        this.spending = spending;
+        this.sideWork = sideWork;
+        this.throttle = throttle;
+        this.revenue = revenue;
     }
 
     /**
@@ -43,21 +66,26 @@ public final class VaultEconomyListener implements Listener {
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onGravePreTeleport(GravePreTeleportEvent e) {
         if (!e.isPlayer()) {
-            plugin.debugMessage("Player not found on teleport pre-event. Skipping check.", 2);
+            debug(2, () -> "Player not found on teleport pre-event. Skipping check.");
             return;
         }
 
         Player p = e.getPlayer();
 
         if (plugin.getPermissionManager().hasGrantedPermission("graves.economy.teleport", p)) {
-            plugin.debugMessage(p.getName() + " has the \"graves.economy.teleport\" bypass permission.", 2);
+            debug(2, () -> p.getName() + " has the \"graves.economy.teleport\" bypass permission.");
+            return;
+        }
+
+        if (throttled(p, ChargeConfig.Type.TELEPORT)) {
+            e.setCancelled(true);
             return;
         }
 
         int blocks = getTeleportBlocks(p, e.getGrave());
 
-        if (chargeOrCancel(p, ChargeConfig.Type.TELEPORT, "teleport", blocks)) {
-            plugin.debugMessage(p.getName() + " had insufficient funds. Cancelling teleportation.", 2);
+        if (chargeOrCancel(p, ChargeConfig.Type.TELEPORT, "teleport", blocks, e.getGrave())) {
+            debug(2, () -> p.getName() + " had insufficient funds. Cancelling teleportation.");
             e.setCancelled(true);
         }
     }
@@ -67,12 +95,17 @@ public final class VaultEconomyListener implements Listener {
         Player p = e.getPlayer();
 
         if (plugin.getPermissionManager().hasGrantedPermission("graves.economy.open", p)) {
-            plugin.debugMessage(p.getName() + " has the \"graves.economy.open\" bypass permission.", 2);
+            debug(2, () -> p.getName() + " has the \"graves.economy.open\" bypass permission.");
+            return;
+        }
+
+        if (throttled(p, ChargeConfig.Type.OPEN)) {
+            e.setCancelled(true);
             return;
         }
 
-        if (chargeOrCancel(p, ChargeConfig.Type.OPEN, "open a grave", 1)) {
-            plugin.debugMessage(p.getName() + " had insufficient funds. Cancelling grave open event.", 2);
+        if (chargeOrCancel(p, ChargeConfig.Type.OPEN, "open a grave", 1, e.getGrave())) {
+            debug(2, () -> p.getName() + " had insufficient funds. Cancelling grave open event.");
             e.setCancelled(true);
         }
     }
@@ -85,14 +118,23 @@ public final class VaultEconomyListener implements Listener {
         if (p == null) return;
 
         if (plugin.getPermissionManager().hasGrantedPermission("graves.economy.autoloot", p)) {
-            plugin.debugMessage(p.getName() + " has the \"graves.economy.autoloot\" bypass permission.", 2);
+            debug(2, () -> p.getName() + " has the \"graves.economy.autoloot\" bypass permission.");
             return;
         }
 
-        if (chargeOrCancel(p, ChargeConfig.Type.AUTOLOOT, "auto-loot", 1)) {
-            plugin.debugMessage(p.getName() + " had insufficient funds. Cancelling grave auto loot event.", 2);
+        if (throttled(p, ChargeConfig.Type.AUTOLOOT)) {
             e.setCancelled(true);
+            return;
+        }
+
+        if (chargeOrCancel(p, ChargeConfig.Type.AUTOLOOT, "auto-loot", 1, e.getGrave())) {
+            debug(2, () -> p.getName() + " had insufficient funds. Cancelling grave auto loot event.");
+            e.setCancelled(true);
+            return;
         }
+
+        // The grave is being emptied; its cached value no longer applies.
+        runtime.get().graveValues().invalidate(e.getGrave());
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
@@ -100,14 +142,62 @@ public final class VaultEconomyListener implements Listener {
         Player p = e.getPlayer();
 
         if (plugin.getPermissionManager().hasGrantedPermission("graves.economy.block_break", p)) {
-            plugin.debugMessage(p.getName() + " has the \"graves.economy.block_break\" bypass permission.", 2);
+            debug(2, () -> p.getName() + " has the \"graves.economy.block_break\" bypass permission.");
             return;
         }
 
-        if (chargeOrCancel(p, ChargeConfig.Type.BLOCK_BREAK, "break a grave", 1)) {
-            plugin.debugMessage(p.getName() + " had insufficient funds. Cancelling grave block break event.", 2);
+        if (throttled(p, ChargeConfig.Type.BLOCK_BREAK)) {
             e.setCancelled(true);
+            return;
+        }
+
+        if (chargeOrCancel(p, ChargeConfig.Type.BLOCK_BREAK, "break a grave", 1, e.getGrave())) {
+            debug(2, () -> p.getName() + " had insufficient funds. Cancelling grave block break event.");
+            e.setCancelled(true);
+            return;
+        }
+
+        runtime.get().graveValues().invalidate(e.getGrave());
+    }
+
+    /** Items may have been taken out of an opened grave; its cached value is stale. */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onGraveInventoryClose(InventoryCloseEvent e) {
+        if (e.getInventory().getHolder(false) instanceof Grave grave) {
+            runtime.get().graveValues().invalidate(grave);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent e) {
+        throttle.forget(e.getPlayer().getUniqueId());
+        delivery.forget(e.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Token bucket check run after the bypass permission and before any economy work.
+     * Throttled attempts are cancelled with {@code graves.economy.throttled}; repeats
+     * within one tick are coalesced by the message delivery.
+     *
+     * @return true when the event should be cancelled
+     */
+    private boolean throttled(Player p, ChargeConfig.Type type) {
+        ChargeConfig cfg = runtime.get();
+        ThrottlePolicy policy = cfg.throttle();
+        if (!policy.isEnabled() || !cfg.isTypeEnabled(type)) return false;
+        if (throttle.tryAcquire(policy, p.getUniqueId(), type, System.nanoTime())) return false;
+
+        ChargeDecisionEvent event = new ChargeDecisionEvent();
+        if (event.shouldCommit()) {
+            event.type = type.name();
+            event.player = p.getName();
+            event.outcome = "throttled";
+            event.cancelled = true;
+            event.commit();
         }
+        sideWork.submit(p, () -> sendMsg(p, "graves.economy.throttled", null));
+        debug(2, () -> "Throttled " + type + " attempt by " + p.getName());
+        return true;
     }
 
     /**
@@ -116,91 +206,190 @@ public final class VaultEconomyListener implements Listener {
      *
      * @param blocks For TELEPORT only: when config mode is FIXED, this multiplies the FIXED amount per block.
      *               For other actions, pass 1.
+     * @param grave  The grave being acted on; only read when the type is in GRAVE_VALUE mode.
      */
-    private boolean chargeOrCancel(Player p, ChargeConfig.Type type, String actionWord, int blocks) {
+    private boolean chargeOrCancel(Player p, ChargeConfig.Type type, String actionWord, int blocks, Grave grave) {
+        // Timed as a JFR event; with recording off this is a few no-op calls the JIT removes.
+        ChargeDecisionEvent event = new ChargeDecisionEvent();
+        event.begin();
+        boolean cancel = decide(event, p, type, actionWord, blocks, grave);
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = type.name();
+            event.player = p.getName();
+            event.cancelled = cancel;
+            event.commit();
+        }
+        return cancel;
+    }
+
+    /** Records the outcome on the JFR event and passes {@code cancel} through. */
+    private static boolean outcome(ChargeDecisionEvent event, String outcome, double cost, boolean cancel) {
+        event.outcome = outcome;
+        event.cost = cost;
+        return cancel;
+    }
+
+    private boolean decide(ChargeDecisionEvent event, Player p, ChargeConfig.Type type, String actionWord,
+                           int blocks, Grave grave) {
         ChargeConfig cfg = runtime.get();
 
-        if (economy == null) {
-            plugin.debugMessage("Charge cancelled: economy provider is null (Vault not hooked?)", 1);
-            return true;
+        if (!cfg.isTypeEnabled(type)) {
+            debug(2, () -> "Charge skipped: type " + type + " disabled");
+            return outcome(event, "disabled", 0.0, false);
         }
 
-        if (!cfg.isTypeEnabled(type)) {
-            plugin.debugMessage("Charge skipped: type " + type + " disabled", 2);
-            return false;
+        if (!runtime.isHooked()) {
+            return chargeBeforeHook(event, cfg, p, type, actionWord, blocks, grave);
+        }
+
+        CurrencyProvider provider = runtime.provider(type);
+        if (provider == null) {
+            debug(1, () -> "Charge cancelled: no provider for currency '" + cfg.currencySpec(type).id()
+                    + "' (Vault not hooked?)");
+            return outcome(event, "no_provider", 0.0, true);
         }
 
-        double balance = economy.getBalance(p);
-        double baseCost = cfg.computeCost(type, p, balance);
+        // Only PERCENT_BALANCE needs the balance up front; other modes leave the provider
+        // untouched until the has/withdraw calls (and not at all on a cached rejection).
+        double balance = cfg.getMode(type) == ChargeConfig.Mode.PERCENT_BALANCE ? provider.getBalance(p) : 0.0;
+        double baseCost = cfg.computeCost(type, p, balance, grave);
 
         if (!(baseCost > 0.0)) {
-            plugin.debugMessage("Charge skipped: computed cost=" + baseCost + " for " + p.getName()
-                    + " balance=" + balance + " type=" + type, 2);
-            return false;
+            debug(2, () -> "Charge skipped: computed cost=" + baseCost + " for " + p.getName() + " type=" + type);
+            return outcome(event, "no_cost", 0.0, false);
         }
 
         OptionalDouble overrideOpt = getChargeOverride(p, type);
-        double cost = overrideOpt.orElse(baseCost);
-
-        cost = applyTeleportPerBlockIfNeeded(cfg, type, cost, blocks);
+        double cost = applyTeleportPerBlockIfNeeded(cfg, type, overrideOpt.orElse(baseCost), blocks);
 
         if (overrideOpt.isPresent()) {
-            plugin.debugMessage("Charge override for " + p.getName() + " type=" + type + " base=" + baseCost + " override=" + cost, 2);
+            debug(2, () -> "Charge override for " + p.getName() + " type=" + type + " base=" + baseCost + " override=" + cost);
         }
         if (!(cost > 0.0)) {
-            plugin.debugMessage("Charge skipped: final cost=" + cost + " for " + p.getName(), 2);
-            return false;
+            debug(2, () -> "Charge skipped: final cost=" + cost + " for " + p.getName());
+            return outcome(event, "no_cost", 0.0, false);
+        }
+
+        ThrottlePolicy throttlePolicy = cfg.throttle();
+        if (throttlePolicy.isEnabled() && throttle.recentInsufficient(p.getUniqueId(), type, cost, System.nanoTime())) {
+            notify(p, cfg, type, "insufficient", actionWord, cost, null);
+            debug(2, () -> "Insufficient funds (cached): " + p.getName() + " type=" + type + " cost=" + cost);
+            return outcome(event, "insufficient_cached", cost, true);
         }
 
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("currency", cfg.currency());
-        placeholders.put("amount", cfg.fmt(cost));
-        placeholders.put("type", actionWord);
-
-        boolean hasEnough;
-        try {
-            hasEnough = economy.has(p, cost);
-        } catch (Throwable t) {
-            plugin.debugMessage("economy.has(...) threw: " + t.getMessage(), 2);
-            hasEnough = (balance >= cost);
+        LimitPolicy limits = cfg.limits();
+        if (limits.isEnabled()) {
+            SpendingLimits.Decision decision = spending.check(limits, p, type, cost);
+            if (decision == SpendingLimits.Decision.FREE) {
+                spending.record(limits, p.getUniqueId(), type, 0.0);
+                notify(p, cfg, type, "free", actionWord, cost, null);
+                debug(2, () -> "Free use: " + p.getName() + " type=" + type);
+                return outcome(event, "free", cost, false);
+            }
+            if (decision == SpendingLimits.Decision.OVER_LIMIT) {
+                notify(p, cfg, type, "limit", actionWord, cost, null);
+                debug(2, () -> "Spending limit reached: " + p.getName() + " type=" + type + " cost=" + cost);
+                return outcome(event, "limit", cost, true);
+            }
         }
 
-        if (!hasEnough) {
-            sendMsg(p, "graves.economy." + type.name().toLowerCase() + ".insufficient", placeholders);
-            plugin.debugMessage("Insufficient funds: " + p.getName() + " balance=" + balance + " cost=" + cost, 2);
-            return true;
+        if (!provider.has(p, cost)) {
+            if (throttlePolicy.isEnabled()) {
+                throttle.recordInsufficient(throttlePolicy, p.getUniqueId(), type, cost, System.nanoTime());
+            }
+            notify(p, cfg, type, "insufficient", actionWord, cost, null);
+            debug(2, () -> "Insufficient funds: " + p.getName() + " type=" + type + " cost=" + cost);
+            return outcome(event, "insufficient", cost, true);
         }
 
-        EconomyResponse r;
+        EconomyResponse r = provider.withdraw(p, cost);
 
-        try {
-            r = economy.withdrawPlayer(p, cost);
-        } catch (Throwable t) {
-            plugin.debugMessage("withdrawPlayer(OfflinePlayer,double) threw: " + t.getMessage(), 2);
-            r = null;
+        if (!r.transactionSuccess()) {
+            String err = r.errorMessage + " (" + r.type + ")";
+            debug(2, () -> "Charging failed: " + p.getName() + " cost=" + cost + " err=" + err);
+            notify(p, cfg, type, "failed", actionWord, cost, err);
+            return outcome(event, "failed", cost, true);
         }
 
-        if (r == null || !r.transactionSuccess()) {
-            try {
-                r = economy.withdrawPlayer(p, p.getWorld().getName(), cost);
-            } catch (Throwable ignored) {
-            }
+        if (limits.isEnabled()) {
+            spending.record(limits, p.getUniqueId(), type, cost);
         }
+        // Collect what the backend actually took (PlayerPoints rounds the cost up to whole points).
+        revenue.collect(cfg.revenue(), type, r.amount);
+
+        // Everything below is reporting only; the charge decision is final at this point.
+        // The new balance comes from the withdraw response, so the side work never calls
+        // the economy (on Folia it would run off the player's region thread).
+        String player = p.getName();
+        double after = r.balance;
+        debug(2, () -> "Charged " + player + " " + cost + " " + cfg.currency(type) + " for " + type
+                + ", balance now " + after);
+
+        notify(p, cfg, type, "charged", actionWord, cost, null);
+        return outcome(event, "charged", cost, false);
+    }
+
+    /**
+     * Applies {@code startup.policy} while no economy provider is hooked.
+     * BILL_LATER applies the spending limits and records the charge in the deferred
+     * queue (denying once it is full), FREE lets the action through, DENY cancels it.
+     *
+     * @return true when the event should be cancelled
+     */
+    private boolean chargeBeforeHook(ChargeDecisionEvent event, ChargeConfig cfg, Player p, ChargeConfig.Type type,
+                                     String actionWord, int blocks, Grave grave) {
+        ChargeConfig.StartupPolicy policy = cfg.startupPolicy();
 
-        if (r == null || !r.transactionSuccess()) {
-            String err = (r == null) ? "null response" : (r.errorMessage + " (" + r.type + ")");
-            plugin.debugMessage("Charging failed: " + p.getName() + " cost=" + cost + " err=" + err, 2);
-            placeholders.put("error", err);
-            sendMsg(p, "graves.economy." + type.name().toLowerCase() + ".failed", placeholders);
-            return true;
+        if (policy == ChargeConfig.StartupPolicy.FREE) {
+            debug(2, () -> "Economy not hooked; allowing " + type + " for " + p.getName() + " for free");
+            return outcome(event, "startup_free", 0.0, false);
         }
 
-        double after = economy.getBalance(p);
-        plugin.debugMessage("Charged " + p.getName() + " " + cost + " " + cfg.currency()
-                + " for " + type + " balance " + balance + " -> " + after, 2);
+        if (policy == ChargeConfig.StartupPolicy.BILL_LATER) {
+            OptionalDouble overrideOpt = getChargeOverride(p, type);
+            // PERCENT_BALANCE depends on a balance we cannot read yet: queue the fraction
+            // (the cost of a balance of 1) and apply it to the balance at settle time.
+            boolean ofBalance = overrideOpt.isEmpty() && cfg.getMode(type) == ChargeConfig.Mode.PERCENT_BALANCE;
+            double amount = overrideOpt.isPresent()
+                    ? overrideOpt.getAsDouble()
+                    : cfg.computeCost(type, p, ofBalance ? 1.0 : 0.0, grave);
+            amount = applyTeleportPerBlockIfNeeded(cfg, type, amount, blocks);
+
+            if (!(amount > 0.0)) return outcome(event, "no_cost", 0.0, false);
+
+            LimitPolicy limits = cfg.limits();
+            if (limits.isEnabled()) {
+                // A balance fraction has no cost yet: only free uses apply now; its
+                // max-spend check happens at settle time.
+                double cost = ofBalance ? 0.0 : amount;
+                SpendingLimits.Decision decision = spending.check(limits, p, type, cost);
+                if (decision == SpendingLimits.Decision.FREE) {
+                    spending.record(limits, p.getUniqueId(), type, 0.0);
+                    notify(p, cfg, type, "free", actionWord, cost, null);
+                    debug(2, () -> "Free use before hook: " + p.getName() + " type=" + type);
+                    return outcome(event, "free", cost, false);
+                }
+                if (decision == SpendingLimits.Decision.OVER_LIMIT) {
+                    notify(p, cfg, type, "limit", actionWord, cost, null);
+                    debug(2, () -> "Spending limit reached before hook: " + p.getName() + " type=" + type + " cost=" + cost);
+                    return outcome(event, "limit", cost, true);
+                }
+            }
+
+            // Known amounts count towards the limits right away, so later queued charges see them.
+            boolean recordNow = limits.isEnabled() && !ofBalance;
+            if (deferred.offer(p.getUniqueId(), type, amount, ofBalance, recordNow)) {
+                if (recordNow) spending.record(limits, p.getUniqueId(), type, amount);
+                debug(2, () -> "Economy not hooked; deferred " + type + " charge for " + p.getName());
+                // A balance fraction is not a cost yet; it is only known at settle time.
+                return outcome(event, "deferred", ofBalance ? 0.0 : amount, false);
+            }
+            debug(1, () -> "Economy not hooked and deferred charge queue is full; denying " + type);
+        }
 
-        sendMsg(p, "graves.economy." + type.name().toLowerCase() + ".charged", placeholders);
-        return false;
+        sideWork.submit(p, () -> sendMsg(p, "graves.economy.no_vault", null));
+        return outcome(event, "startup_denied", 0.0, true);
     }
 
     /**
@@ -231,18 +420,39 @@ public final class VaultEconomyListener implements Listener {
         return Math.max(1, blocks);
     }
 
+    /**
+     * Queues the outcome message for the player. Placeholder formatting, translation
+     * and delivery all run as side work, off the event handler.
+     */
+    private void notify(Player p, ChargeConfig cfg, ChargeConfig.Type type, String outcome,
+                        String actionWord, double cost, String error) {
+        sideWork.submit(p, () -> {
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("currency", cfg.currency(type));
+            placeholders.put("amount", cfg.fmt(type, cost));
+            placeholders.put("type", actionWord);
+            if (error != null) placeholders.put("error", error);
+            sendMsg(p, "graves.economy." + type.name().toLowerCase() + "." + outcome, placeholders);
+        });
+    }
+
+    /** Queues a debug message; the string is only built when the side work runs. */
+    private void debug(int level, Supplier<String> message) {
+        sideWork.submit(() -> plugin.debugMessage(message.get(), level));
+    }
+
     private void sendMsg(Player p, String key, Map<String, String> placeholders) {
         String locale = p.getLocale();
         locale = locale.toLowerCase(Locale.ROOT).replace('-', '_');
 
-        String msg = i18n.translate(key, placeholders, locale);
+        Component msg = i18n.render(key, placeholders, locale);
 
-        if (msg == null || msg.isBlank() || msg.equals(key)) {
+        if (msg == null) {
             plugin.debugMessage("Missing i18n key: " + key + " (locale=" + locale + ")", 2);
             return;
         }
 
-        p.sendMessage(msg);
+        delivery.deliver(p, runtime.get().messageChannels().of(key), msg);
     }
 
 
@@ -1,17 +1,27 @@
 package dev.cwhead.GravesX.modules.economy;
 
-import com.ranull.graves.Graves;
+import com.github.Anon8281.universalScheduler.UniversalScheduler;
+import com.github.Anon8281.universalScheduler.scheduling.schedulers.TaskScheduler;
+import com.github.Anon8281.universalScheduler.scheduling.tasks.MyScheduledTask;
 import dev.cwhead.GravesX.module.GravesXModule;
 import dev.cwhead.GravesX.module.ModuleContext;
+import dev.cwhead.GravesX.modules.economy.currency.VaultCapabilities;
 import dev.cwhead.GravesX.modules.economy.integration.EconomyPlaceholders;
+import dev.cwhead.GravesX.modules.economy.ledger.LedgerEconomy;
+import dev.cwhead.GravesX.modules.economy.limit.AttemptThrottle;
+import dev.cwhead.GravesX.modules.economy.limit.SpendingLimits;
+import dev.cwhead.GravesX.modules.economy.revenue.RevenueCollector;
 import dev.cwhead.GravesX.modules.economy.util.I18n;
+import dev.cwhead.GravesX.modules.economy.util.SideWorkQueue;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.Bukkit;
-import org.bukkit.event.HandlerList;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.ServicePriority;
 
+import java.io.File;
+import java.io.IOException;
+
 /**
  * GravesX Vault economy module with I18n support.
  */
@@ -24,6 +34,18 @@ public final class VaultEconomyModule extends GravesXModule {
     private EconomyRuntime runtime;
     private I18n i18n;
     private EconomyPlaceholders economyPlaceholders;
+    private DeferredChargeQueue deferredCharges;
+    private TaskScheduler scheduler;
+    private SpendingLimits spending;
+    private AttemptThrottle throttle;
+    private RevenueCollector revenue;
+    private MyScheduledTask revenueFlushTask;
+    private MyScheduledTask revenueSaveTask;
+    private MyScheduledTask limitSnapshotTask;
+    private SideWorkQueue sideWork;
+    private LedgerEconomy ledger;
+    private MyScheduledTask ledgerFlushTask;
+    private MyScheduledTask ledgerCompactTask;
 
     @Override
     public void onModuleLoad(ModuleContext ctx) {
@@ -40,7 +62,9 @@ public final class VaultEconomyModule extends GravesXModule {
             return;
         }
 
-        this.runtime = new EconomyRuntime(new ChargeConfig(ctx.getConfig()));
+        this.scheduler = UniversalScheduler.getScheduler(ctx.getPlugin());
+        TaskScheduler sched = this.scheduler;
+        this.runtime = new EconomyRuntime(new ChargeConfig(ctx.getConfig(), ctx.getLogger()), ctx.getLogger(), sched::runTask);
         ctx.registerService(EconomyRuntime.class, runtime, ServicePriority.Normal);
 
 
@@ -49,25 +73,100 @@ public final class VaultEconomyModule extends GravesXModule {
         // I18n is constructed so loadLanguages() actually finds the files on disk.
         ctx.saveResource("languages/en_us.yml", false);
         ctx.saveResource("languages/es_es.yml", false);
+        // Flight Recorder profile enabling the module's JFR events (see README).
+        ctx.saveResource("jfr/gravesx-economy.jfc", false);
 
         String defaultLang = ctx.getConfig().getString("default-language", "en_us");
         // Pass ctx.getDataFolder() — the module's own folder — NOT ctx.getPlugin().getDataFolder()
         // which would point to the host Graves plugin folder and miss the module files.
-        this.i18n = new I18n(ctx.getDataFolder(), defaultLang);
+        this.i18n = new I18n(ctx.getDataFolder(), defaultLang, runtime.get().messageFormat());
         ctx.registerService(I18n.class, i18n, ServicePriority.Normal);
 
+        // Register the charge listener right away: until Vault is hooked it applies
+        // startup.policy (bill later / free / deny) instead of leaving actions unhandled.
+        this.spending = new SpendingLimits();
+        loadSpendingLimits();
+        long snapshotTicks = runtime.get().limitSnapshotInterval() * 20L;
+        this.limitSnapshotTask = scheduler.runTaskTimerAsynchronously(this::saveSpendingLimits, snapshotTicks, snapshotTicks);
+
+        EconomyRuntime rt = this.runtime;
+        this.sideWork = new SideWorkQueue(scheduler, () -> rt.get().sideWorkBudgetNanos(), ctx.getLogger());
+        sideWork.start();
+
+        this.throttle = new AttemptThrottle();
+        ctx.registerService(AttemptThrottle.class, throttle, ServicePriority.Normal);
+
+        this.revenue = new RevenueCollector(new File(ctx.getDataFolder(), "revenue.dat"));
+        try {
+            revenue.load();
+        } catch (IOException e) {
+            ctx.getLogger().warning("[Economy-Vault] Could not restore outstanding revenue: " + e.getMessage());
+        }
+        // Deposits go through the economy, so they run on the main (global region) thread;
+        // only the snapshot write is async.
+        long flushTicks = runtime.get().revenueFlushInterval() * 20L;
+        long saveTicks = runtime.get().revenueSaveInterval() * 20L;
+        RevenueCollector rc = this.revenue;
+        this.revenueFlushTask = scheduler.runTaskTimer(() -> rc.flush(sched, rt, ctx.getLogger()), flushTicks, flushTicks);
+        this.revenueSaveTask = scheduler.runTaskTimerAsynchronously(() -> rc.saveIfChanged(ctx.getLogger()), saveTicks, saveTicks);
+
+        this.deferredCharges = new DeferredChargeQueue(runtime.get().startupQueueCapacity(), revenue, spending);
+        loadDeferredCharges();
+        this.listener = ctx.registerListener(new VaultEconomyListener(ctx.getPlugin(), runtime, i18n,
+                deferredCharges, spending, sideWork, throttle, revenue));
+        this.bootstrapListener = ctx.registerListener(new VaultEconomyBootstrapListener(
+                new VaultEconomyBootstrapListener.HookCallback() {
+                    @Override
+                    public void hooked() {
+                        onEconomyAvailable();
+                    }
+
+                    @Override
+                    public void lost(Economy provider) {
+                        onEconomyLost(provider);
+                    }
+
+                    @Override
+                    public void replaced(Economy provider) {
+                        onLedgerReplaced(provider);
+                    }
+                }, runtime, deferredCharges, ctx.getLogger()));
+
         ctx.runTask(() -> {
-            if (tryHookEconomy()) {
-                ctx.getLogger().warning("[Economy-Vault] Vault found but no provider yet, waiting...");
-                this.bootstrapListener = ctx.registerListener(new VaultEconomyBootstrapListener(this::onEconomyAvailable));
+            if (tryHookEconomy() && runtime.get().ledgerEnabled()) {
+                // Registering fires ServiceRegisterEvent, which hooks the ledger through the bootstrap listener.
+                startLedger();
+                return;
+            }
+            if (this.economy == null) {
+                ctx.getLogger().warning("[Economy-Vault] Vault found but no provider yet, waiting... (startup policy: "
+                        + runtime.get().startupPolicy() + ")");
             } else {
                 onEconomyAvailable();
+                bootstrapListener.settle();
             }
         });
     }
 
     @Override
     public void onModuleDisable(ModuleContext ctx) {
+        if (deferredCharges != null) saveDeferredCharges();
+        if (sideWork != null) {
+            sideWork.stop();
+            this.sideWork = null;
+        }
+        if (limitSnapshotTask != null) {
+            limitSnapshotTask.cancel();
+            this.limitSnapshotTask = null;
+        }
+        if (spending != null) saveSpendingLimits();
+        stopRevenue();
+        stopLedger();
+        this.spending = null;
+        this.throttle = null;
+        this.revenue = null;
+        this.scheduler = null;
+        this.deferredCharges = null;
         this.listener = null;
         this.bootstrapListener = null;
         this.economy = null;
@@ -76,38 +175,173 @@ public final class VaultEconomyModule extends GravesXModule {
         this.economyPlaceholders = null;
     }
 
+    private File spendingLimitsFile() {
+        return new File(ctx.getDataFolder(), "limits.dat");
+    }
+
+    private void loadSpendingLimits() {
+        try {
+            spending.load(spendingLimitsFile());
+        } catch (IOException e) {
+            ctx.getLogger().warning("[Economy-Vault] Could not restore spending limits: " + e.getMessage());
+        }
+    }
+
+    private synchronized void saveSpendingLimits() {
+        SpendingLimits current = this.spending;
+        EconomyRuntime rt = this.runtime;
+        if (current == null || rt == null) return;
+        try {
+            current.save(spendingLimitsFile(), rt.get().limits());
+        } catch (IOException e) {
+            ctx.getLogger().warning("[Economy-Vault] Could not save spending limits: " + e.getMessage());
+        }
+    }
+
+    private File deferredChargesFile() {
+        return new File(ctx.getDataFolder(), "deferred.dat");
+    }
+
+    private void loadDeferredCharges() {
+        try {
+            int dropped = deferredCharges.load(deferredChargesFile());
+            if (deferredCharges.size() > 0) {
+                ctx.getLogger().info("[Economy-Vault] Restored " + deferredCharges.size()
+                        + " deferred charges from the last shutdown.");
+            }
+            if (dropped > 0) {
+                ctx.getLogger().warning("[Economy-Vault] Dropped " + dropped
+                        + " saved deferred charges; startup.max-queued is too small to hold them.");
+            }
+        } catch (IOException e) {
+            ctx.getLogger().warning("[Economy-Vault] Could not restore deferred charges: " + e.getMessage());
+        }
+    }
+
+    private void saveDeferredCharges() {
+        int pending = deferredCharges.size();
+        try {
+            deferredCharges.save(deferredChargesFile());
+            if (pending > 0) {
+                ctx.getLogger().warning("[Economy-Vault] Saved " + pending
+                        + " deferred charges; no economy provider was hooked before shutdown. They are billed after the next start.");
+            }
+        } catch (IOException e) {
+            ctx.getLogger().severe("[Economy-Vault] Could not save " + pending + " deferred charges: " + e.getMessage());
+        }
+    }
+
+    private void stopRevenue() {
+        if (revenueFlushTask != null) revenueFlushTask.cancel();
+        if (revenueSaveTask != null) revenueSaveTask.cancel();
+        this.revenueFlushTask = null;
+        this.revenueSaveTask = null;
+        if (revenue == null) return;
+
+        // Pay out while the economy is still bound; whatever cannot be paid stays in revenue.dat.
+        revenue.flushNow(runtime, ctx.getLogger());
+    }
+
+    private void startLedger() {
+        LedgerEconomy fresh = new LedgerEconomy(ctx.getDataFolder(), ctx.getConfig().getConfigurationSection("ledger"));
+        try {
+            fresh.open();
+        } catch (IOException e) {
+            ctx.getLogger().severe("[Economy-Vault] Could not open the built-in ledger: " + e.getMessage()
+                    + ". Staying in startup mode (" + runtime.get().startupPolicy() + ").");
+            return;
+        }
+        this.ledger = fresh;
+
+        long flushTicks = runtime.get().ledgerFlushInterval() * 20L;
+        long compactTicks = runtime.get().ledgerCompactInterval() * 20L;
+        this.ledgerFlushTask = scheduler.runTaskTimerAsynchronously(() -> ledgerIo(fresh::flush, "flush"), flushTicks, flushTicks);
+        this.ledgerCompactTask = scheduler.runTaskTimerAsynchronously(() -> ledgerIo(fresh::compact, "compact"), compactTicks, compactTicks);
+
+        ctx.getLogger().info("[Economy-Vault] No economy plugin found; registering the built-in ledger.");
+        Bukkit.getServicesManager().register(Economy.class, fresh, ctx.getPlugin(), ServicePriority.Lowest);
+    }
+
+    private void stopLedger() {
+        LedgerEconomy current = this.ledger;
+        if (current == null) return;
+        this.ledger = null;
+
+        if (ledgerFlushTask != null) ledgerFlushTask.cancel();
+        if (ledgerCompactTask != null) ledgerCompactTask.cancel();
+        this.ledgerFlushTask = null;
+        this.ledgerCompactTask = null;
+
+        // Unbind first so the bootstrap listener does not treat the unregister as a lost provider.
+        if (runtime != null && runtime.economy() == current) runtime.unbind();
+        Bukkit.getServicesManager().unregister(Economy.class, current);
+        ledgerIo(current::close, "close");
+    }
+
+    private interface LedgerIo {
+        void run() throws IOException;
+    }
+
+    private void ledgerIo(LedgerIo op, String what) {
+        try {
+            op.run();
+        } catch (IOException e) {
+            ctx.getLogger().warning("[Economy-Vault] Ledger " + what + " failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Picks the highest-priority registered economy, skipping the built-in ledger
+     * whenever any other provider is registered.
+     *
+     * @return {@code true} if no provider was found
+     */
     private boolean tryHookEconomy() {
         try {
-            RegisteredServiceProvider<Economy> rsp = Bukkit.getServicesManager().getRegistration(Economy.class);
-            if (rsp == null) return true;
-            this.economy = rsp.getProvider();
+            Economy fallback = null;
+            for (RegisteredServiceProvider<Economy> rsp : Bukkit.getServicesManager().getRegistrations(Economy.class)) {
+                Economy provider = rsp.getProvider();
+                if (provider instanceof LedgerEconomy) {
+                    if (fallback == null) fallback = provider;
+                    continue;
+                }
+                this.economy = provider;
+                return false;
+            }
+            if (fallback == null) return true;
+            this.economy = fallback;
             return false;
         } catch (Throwable t) {
             return true;
         }
     }
 
-    private void onEconomyAvailable() {
-        // Unregister bootstrap listener immediately — it must only fire once.
-        if (this.bootstrapListener != null) {
-            HandlerList.unregisterAll(this.bootstrapListener);
-            this.bootstrapListener = null;
-        }
+    private void onLedgerReplaced(Economy provider) {
+        ctx.getLogger().warning("[Economy-Vault] " + provider.getName() + " registered; replacing the built-in ledger. "
+                + "Balances held in the ledger are not transferred.");
+        // stopLedger unbinds before unregistering, so the unregister is not reported as a lost provider.
+        stopLedger();
+        this.economy = provider;
+        onEconomyAvailable();
+    }
 
-        // Guard against being called again after the listener is already set up.
-        if (this.listener != null) return;
+    private void onEconomyAvailable() {
+        // Guard against being called again after the economy is already bound.
+        if (runtime.isHooked()) return;
 
         if (this.economy == null && tryHookEconomy()) {
-            ctx.getLogger().severe("[Economy-Vault] Vault provider still missing. Disabling module.");
-            ctx.getGravesXModules().disableModule();
+            ctx.getLogger().severe("[Economy-Vault] Vault provider still missing. Staying in startup mode ("
+                    + runtime.get().startupPolicy() + ").");
             return;
         }
-        Graves plugin = ctx.getPlugin();
-        this.listener = ctx.registerListener(new VaultEconomyListener(plugin, economy, runtime, i18n));
+        VaultCapabilities capabilities = runtime.bind(economy);
         ctx.getLogger().info("[Economy-Vault] Hooked Vault Economy: " + economy.getName());
+        if (capabilities.probed()) {
+            ctx.getLogger().info("[Economy-Vault] Provider capabilities: " + capabilities);
+        }
         Plugin placeholderAPI = Bukkit.getPluginManager().getPlugin("PlaceholderAPI");
 
-        if (placeholderAPI != null && placeholderAPI.isEnabled()) {
+        if (economyPlaceholders == null && placeholderAPI != null && placeholderAPI.isEnabled()) {
             try {
                 this.economyPlaceholders = new EconomyPlaceholders(ctx);
                 economyPlaceholders.register();
@@ -119,4 +353,14 @@ public final class VaultEconomyModule extends GravesXModule {
             }
         }
     }
+
+    private void onEconomyLost(Economy provider) {
+        ctx.getLogger().warning("[Economy-Vault] Vault Economy " + provider.getName() + " unregistered. "
+                + "Falling back to startup policy (" + runtime.get().startupPolicy() + ") until a provider returns.");
+        runtime.unbind();
+        this.economy = null;
+
+        // Another provider may still be registered underneath the one that left.
+        if (!tryHookEconomy()) onEconomyAvailable();
+    }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import dev.cwhead.GravesX.module.ModuleContext;
 import dev.cwhead.GravesX.module.command.GravesXModuleCommand;
 import dev.cwhead.GravesX.modules.economy.ChargeConfig;
 import dev.cwhead.GravesX.modules.economy.EconomyRuntime;
+import dev.cwhead.GravesX.modules.economy.jfr.ConfigReloadEvent;
+import dev.cwhead.GravesX.modules.economy.limit.AttemptThrottle;
 import dev.cwhead.GravesX.modules.economy.util.I18n;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -12,7 +14,8 @@ import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
 /**
- * Implements {@code /graveecon reload} to hot-reload the Economy-Vault module config.
+ * Implements {@code /graveecon reload} to hot-reload the Economy-Vault module config,
+ * and {@code /graveecon stats} to show attempt throttle rejection counts.
  * <p>
  * Requires {@code graves.economy.reload}. After reloading the file via
  * {@link ModuleContext#reloadConfig()}, publishes the new {@link ChargeConfig}
@@ -43,7 +46,7 @@ public final class EconReloadCommand implements GravesXModuleCommand {
 
     /** {@inheritDoc} */
     @Override public String getUsage() {
-        return "/graveecon reload";
+        return "/graveecon <reload|stats>";
     }
 
     /** {@inheritDoc} */
@@ -55,14 +58,15 @@ public final class EconReloadCommand implements GravesXModuleCommand {
      * Handles {@code /graveecon reload}.
      * <ul>
      *   <li>Checks permission.</li>
-     *   <li>Validates subcommand usage.</li>
+     *   <li>Validates subcommand usage; {@code stats} prints rejection counts.</li>
      *   <li>Reloads the module config and updates the shared {@link EconomyRuntime}.</li>
+     *   <li>Times the reload as a {@link ConfigReloadEvent}.</li>
      * </ul>
      *
      * @param sender command sender
      * @param command command being executed
      * @param label alias used
-     * @param args arguments; expects single {@code reload}
+     * @param args arguments; expects single {@code reload} or {@code stats}
      * @return always {@code true} (command handled)
      */
     @Override
@@ -74,28 +78,73 @@ public final class EconReloadCommand implements GravesXModuleCommand {
             sender.sendMessage(ChatColor.RED + "You don't have permission to do that.");
             return true;
         }
+        if (args.length == 1 && "stats".equalsIgnoreCase(args[0])) {
+            sendStats(sender);
+            return true;
+        }
         if (args.length != 1 || !"reload".equalsIgnoreCase(args[0])) {
             sender.sendMessage(ChatColor.YELLOW + "Usage: " + getUsage());
             return true;
         }
 
+        ConfigReloadEvent event = new ConfigReloadEvent();
+        event.begin();
+        boolean reloaded = reload(sender);
+        event.end();
+        if (event.shouldCommit()) {
+            event.success = reloaded;
+            event.commit();
+        }
+        return true;
+    }
+
+    /**
+     * Reloads the module config and publishes it to the runtime and I18n.
+     *
+     * @param sender command sender
+     * @return {@code false} if the runtime was not available
+     */
+    private boolean reload(CommandSender sender) {
         ctx.reloadConfig();
-        ChargeConfig fresh = new ChargeConfig(ctx.getConfig());
+        ChargeConfig fresh = new ChargeConfig(ctx.getConfig(), ctx.getLogger());
 
         EconomyRuntime runtime = Bukkit.getServicesManager().load(EconomyRuntime.class);
         if (runtime != null) {
             runtime.set(fresh);
         } else {
             sender.sendMessage(ChatColor.RED + "[Economy-Vault] Runtime not available; is the module enabled?");
-            return true;
+            return false;
         }
 
         I18n i18n = Bukkit.getServicesManager().load(I18n.class);
         if (i18n != null) {
+            i18n.setFormat(fresh.messageFormat());
             i18n.loadLanguages();
         }
 
         sender.sendMessage(ChatColor.GREEN + "[Economy-Vault] Config reloaded.");
         return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Prints per-type counts of attempts rejected by the throttle or the
+     * insufficient-funds cache since the module was enabled.
+     *
+     * @param sender command sender
+     */
+    private void sendStats(CommandSender sender) {
+        AttemptThrottle throttle = Bukkit.getServicesManager().load(AttemptThrottle.class);
+        if (throttle == null) {
+            sender.sendMessage(ChatColor.RED + "[Economy-Vault] Throttle not available; is the module enabled?");
+            return;
+        }
+
+        sender.sendMessage(ChatColor.GOLD + "[Economy-Vault] Rejected attempts since enable:");
+        for (ChargeConfig.Type t : ChargeConfig.Type.values()) {
+            sender.sendMessage(ChatColor.YELLOW + " " + t.name() + ChatColor.GRAY + ": throttled "
+                    + ChatColor.WHITE + throttle.rejections(AttemptThrottle.Rejection.THROTTLED, t)
+                    + ChatColor.GRAY + ", insufficient (cached) "
+                    + ChatColor.WHITE + throttle.rejections(AttemptThrottle.Rejection.INSUFFICIENT_CACHED, t));
+        }
+    }
+}
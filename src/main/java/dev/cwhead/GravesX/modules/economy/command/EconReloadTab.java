@@ -13,20 +13,22 @@ import java.util.List;
 /**
  * Tab completer for the {@code /graveecon} command.
  * <p>
- * Provides a single subcommand suggestion: {@code reload}.
+ * Suggests the subcommands {@code reload} and {@code stats}.
  * </p>
  */
 public final class EconReloadTab implements GravesXModuleTabCompleter {
 
+    private static final List<String> SUBCOMMANDS = List.of("reload", "stats");
+
     /**
-     * Suggests {@code reload} for the first argument if it matches the user's partial input.
+     * Suggests {@code reload} and {@code stats} for the first argument if it matches the user's partial input.
      * Returns an empty list for all other positions.
      *
      * @param sender the command sender
      * @param command the command being executed
      * @param alias the alias used
      * @param args the command arguments
-     * @return a list containing {@code reload} when appropriate; otherwise an empty list
+     * @return the matching subcommands for the first argument; otherwise an empty list
      */
     @Override
     public List<String> onTabComplete(@NotNull CommandSender sender,
@@ -35,7 +37,7 @@ public final class EconReloadTab implements GravesXModuleTabCompleter {
                                       String[] args) {
         if (args.length == 1) {
             List<String> out = new ArrayList<>();
-            StringUtil.copyPartialMatches(args[0], Collections.singletonList("reload"), out);
+            StringUtil.copyPartialMatches(args[0], SUBCOMMANDS, out);
             return out;
         }
         return Collections.emptyList();
@@ -0,0 +1,37 @@
+package dev.cwhead.GravesX.modules.economy.currency;
+
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * A resolved handle to one currency backend.
+ * <p>
+ * Handles are created once when the economy is hooked (and again on reload),
+ * so implementations must not perform service lookups per call.
+ * </p>
+ */
+public interface CurrencyProvider {
+
+    /** Display name of the backing plugin/currency, used for logging. */
+    String getName();
+
+    /** Current balance of the player in this currency. */
+    double getBalance(OfflinePlayer p);
+
+    /** Whether the player can afford {@code amount}. */
+    boolean has(OfflinePlayer p, double amount);
+
+    /** Withdraws {@code amount}; never returns {@code null}. */
+    EconomyResponse withdraw(OfflinePlayer p, double amount);
+
+    /** Deposits {@code amount}; never returns {@code null}. */
+    EconomyResponse deposit(OfflinePlayer p, double amount);
+
+    /**
+     * The part of {@code amount} that {@link #deposit} actually credits. Backends that
+     * only hold whole units round down; the rest stays with the caller.
+     */
+    default double depositable(double amount) {
+        return amount;
+    }
+}
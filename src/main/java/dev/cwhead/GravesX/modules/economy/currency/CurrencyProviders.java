@@ -0,0 +1,66 @@
+package dev.cwhead.GravesX.modules.economy.currency;
+
+import dev.cwhead.GravesX.modules.economy.ChargeConfig;
+import net.milkbowl.vault.economy.Economy;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+/**
+ * Resolves {@link CurrencyProvider} handles for every charge type.
+ */
+public final class CurrencyProviders {
+
+    private CurrencyProviders() {
+    }
+
+    /**
+     * Resolves one provider per {@link ChargeConfig.Type}. Types sharing a currency
+     * share the handle; types whose backend is unavailable are left unmapped.
+     *
+     * @param cfg          charge config holding the per-type currency specs
+     * @param economy      the hooked Vault economy (used for {@link CurrencySpec.Kind#VAULT})
+     * @param capabilities probed capabilities of {@code economy}
+     * @param pluginName   caller name reported to multi-currency providers
+     * @param globalThread runs Vault re-probes (main / global region thread)
+     * @param logger       receives a warning for each currency that could not be resolved
+     * @return providers keyed by type
+     */
+    public static EnumMap<ChargeConfig.Type, CurrencyProvider> resolve(ChargeConfig cfg, Economy economy,
+                                                                       VaultCapabilities capabilities,
+                                                                       String pluginName, Executor globalThread,
+                                                                       Logger logger) {
+        EnumMap<ChargeConfig.Type, CurrencyProvider> out = new EnumMap<>(ChargeConfig.Type.class);
+        Map<String, CurrencyProvider> byId = new HashMap<>();
+
+        for (ChargeConfig.Type t : ChargeConfig.Type.values()) {
+            CurrencySpec spec = cfg.currencySpec(t);
+            CurrencyProvider provider = byId.get(spec.id());
+            if (provider == null && !byId.containsKey(spec.id())) {
+                provider = create(spec, economy, capabilities, pluginName, globalThread, logger);
+                byId.put(spec.id(), provider);
+                if (provider == null && spec.provider() != CurrencySpec.Kind.UNDEFINED) {
+                    logger.warning("[Economy-Vault] Currency '" + spec.id() + "' (" + spec.provider()
+                            + ") is not available; charges using it will be cancelled.");
+                }
+            }
+            if (provider != null) out.put(t, provider);
+        }
+        return out;
+    }
+
+    private static CurrencyProvider create(CurrencySpec spec, Economy economy, VaultCapabilities capabilities,
+                                           String pluginName, Executor globalThread, Logger logger) {
+        return switch (spec.provider()) {
+            case VAULT -> economy == null ? null
+                    : new VaultCurrencyProvider(economy, capabilities,
+                            e -> VaultCapabilities.probe(e, logger), globalThread, logger);
+            case VAULT_UNLOCKED -> VaultUnlockedCurrencyProvider.resolve(pluginName, spec.name());
+            case PLAYER_POINTS -> PlayerPointsCurrencyProvider.resolve();
+            case UNDEFINED -> null;
+        };
+    }
+}
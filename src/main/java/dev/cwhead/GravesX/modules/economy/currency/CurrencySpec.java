@@ -0,0 +1,51 @@
+package dev.cwhead.GravesX.modules.economy.currency;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Locale;
+
+/**
+ * Configured currency: which backend it lives in and how it is displayed.
+ *
+ * @param id       config key of the currency ({@code default} for the {@code economy} section)
+ * @param provider backend kind
+ * @param name     backend currency identifier (VaultUnlocked only; blank = backend default)
+ * @param symbol   display symbol
+ * @param rounding decimal places used when formatting amounts
+ */
+public record CurrencySpec(String id, Kind provider, String name, String symbol, int rounding) {
+
+    /** Identifier of the implicit currency defined by the {@code economy} section. */
+    public static final String DEFAULT_ID = "default";
+
+    /**
+     * Supported currency backends. {@code UNDEFINED} marks a type that references a
+     * currency id missing from the {@code currencies} section; it never resolves.
+     */
+    public enum Kind { VAULT, VAULT_UNLOCKED, PLAYER_POINTS, UNDEFINED }
+
+    /** Spec for a referenced but undefined currency id; displayed like {@code fallback}. */
+    public static CurrencySpec undefined(String id, CurrencySpec fallback) {
+        return new CurrencySpec(id, Kind.UNDEFINED, "", fallback.symbol(), fallback.rounding());
+    }
+
+    /**
+     * Reads a currency from a {@code currencies.<id>} section, falling back to
+     * {@code fallback}'s symbol and rounding for missing keys.
+     */
+    public static CurrencySpec parse(String id, ConfigurationSection section, CurrencySpec fallback) {
+        Kind kind;
+        try {
+            kind = Kind.valueOf(section.getString("provider", "VAULT").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            kind = Kind.VAULT;
+        }
+        if (kind == Kind.UNDEFINED) kind = Kind.VAULT;
+        return new CurrencySpec(
+                id,
+                kind,
+                section.getString("name", ""),
+                section.getString("symbol", fallback.symbol()),
+                Math.max(0, section.getInt("round-to-decimals", fallback.rounding())));
+    }
+}
@@ -0,0 +1,123 @@
+package dev.cwhead.GravesX.modules.economy.currency;
+
+import dev.cwhead.GravesX.modules.economy.jfr.ProviderCallEvent;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+/**
+ * {@link CurrencyProvider} for PlayerPoints-style integer point plugins.
+ * <p>
+ * PlayerPoints is not a compile-time dependency, so its API methods are
+ * resolved reflectively once in {@link #resolve()} and bound to the API
+ * instance; calls afterwards are plain method-handle invocations.
+ * Amounts are rounded up to whole points when withdrawing. Every call into
+ * the API is timed as a {@link ProviderCallEvent}.
+ * </p>
+ */
+public final class PlayerPointsCurrencyProvider implements CurrencyProvider {
+
+    private final MethodHandle look;
+    private final MethodHandle take;
+    private final MethodHandle give;
+
+    private PlayerPointsCurrencyProvider(MethodHandle look, MethodHandle take, MethodHandle give) {
+        this.look = look;
+        this.take = take;
+        this.give = give;
+    }
+
+    /**
+     * Binds to the running PlayerPoints API.
+     *
+     * @return provider, or {@code null} if PlayerPoints is not installed or its API changed
+     */
+    public static PlayerPointsCurrencyProvider resolve() {
+        try {
+            Plugin plugin = Bukkit.getPluginManager().getPlugin("PlayerPoints");
+            if (plugin == null || !plugin.isEnabled()) return null;
+
+            Method getApi = plugin.getClass().getMethod("getAPI");
+            Object api = getApi.invoke(plugin);
+            if (api == null) return null;
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> apiClass = getApi.getReturnType();
+            MethodHandle look = lookup.findVirtual(apiClass, "look", MethodType.methodType(int.class, UUID.class)).bindTo(api);
+            MethodHandle take = lookup.findVirtual(apiClass, "take", MethodType.methodType(boolean.class, UUID.class, int.class)).bindTo(api);
+            MethodHandle give = lookup.findVirtual(apiClass, "give", MethodType.methodType(boolean.class, UUID.class, int.class)).bindTo(api);
+            return new PlayerPointsCurrencyProvider(look, take, give);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "PlayerPoints";
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer p) {
+        ProviderCallEvent call = ProviderCallEvent.start();
+        try {
+            int points = (int) look.invokeExact(p.getUniqueId());
+            call.complete(this, "look", true);
+            return points;
+        } catch (Throwable t) {
+            call.complete(this, "look", false);
+            return 0.0;
+        }
+    }
+
+    @Override
+    public boolean has(OfflinePlayer p, double amount) {
+        return getBalance(p) >= Math.ceil(amount);
+    }
+
+    @Override
+    public EconomyResponse withdraw(OfflinePlayer p, double amount) {
+        int points = (int) Math.ceil(amount);
+        ProviderCallEvent call = ProviderCallEvent.start();
+        try {
+            boolean ok = (boolean) take.invokeExact(p.getUniqueId(), points);
+            call.complete(this, "take", ok);
+            return response(p, points, ok);
+        } catch (Throwable t) {
+            call.complete(this, "take", false);
+            return new EconomyResponse(points, 0.0, EconomyResponse.ResponseType.FAILURE, String.valueOf(t.getMessage()));
+        }
+    }
+
+    @Override
+    public double depositable(double amount) {
+        return Math.floor(amount);
+    }
+
+    @Override
+    public EconomyResponse deposit(OfflinePlayer p, double amount) {
+        int points = (int) depositable(amount);
+        ProviderCallEvent call = ProviderCallEvent.start();
+        try {
+            boolean ok = (boolean) give.invokeExact(p.getUniqueId(), points);
+            call.complete(this, "give", ok);
+            return response(p, points, ok);
+        } catch (Throwable t) {
+            call.complete(this, "give", false);
+            return new EconomyResponse(points, 0.0, EconomyResponse.ResponseType.FAILURE, String.valueOf(t.getMessage()));
+        }
+    }
+
+    private EconomyResponse response(OfflinePlayer p, int points, boolean ok) {
+        return new EconomyResponse(points, getBalance(p),
+                ok ? EconomyResponse.ResponseType.SUCCESS : EconomyResponse.ResponseType.FAILURE,
+                ok ? null : "PlayerPoints rejected the transaction");
+    }
+}
@@ -0,0 +1,118 @@
+package dev.cwhead.GravesX.modules.economy.currency;
+
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * What a Vault {@link Economy} implementation actually supports, as observed by
+ * {@link #probe(Economy, Logger)} against a dedicated sentinel account.
+ *
+ * @param probed         whether a probe ran; when {@code false} every path is tried in turn
+ * @param withdrawPlayer {@code withdrawPlayer(OfflinePlayer, double)} works
+ * @param withdrawWorld  {@code withdrawPlayer(OfflinePlayer, String, double)} works
+ * @param hasReliable    {@code has(OfflinePlayer, double)} agrees with {@code getBalance}
+ */
+public record VaultCapabilities(boolean probed, boolean withdrawPlayer, boolean withdrawWorld, boolean hasReliable) {
+
+    /** Capabilities used when probing is disabled: assume nothing, try every path. */
+    public static final VaultCapabilities UNKNOWN = new VaultCapabilities(false, true, true, true);
+
+    /** Account used for probing; never a real player. */
+    public static final UUID SENTINEL = UUID.nameUUIDFromBytes("GravesX-Economy-Vault-probe".getBytes(StandardCharsets.UTF_8));
+
+    private static final double PROBE_AMOUNT = 1.0;
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Exercises each overload once: deposits {@value #PROBE_AMOUNT} into the sentinel
+     * account and withdraws it again through every withdraw path.
+     * <p>
+     * A deposit whose own withdraw path fails is undone through any path that works,
+     * and the sentinel balance is compared with its starting value afterwards. If a
+     * deposit cannot be taken back, the error is logged and the probe is abandoned
+     * ({@link #UNKNOWN}) rather than depositing again.
+     * </p>
+     */
+    public static VaultCapabilities probe(Economy economy, Logger logger) {
+        OfflinePlayer sentinel = Bukkit.getOfflinePlayer(SENTINEL);
+        List<World> worlds = Bukkit.getWorlds();
+        String world = worlds.isEmpty() ? null : worlds.get(0).getName();
+
+        try {
+            if (!economy.hasAccount(sentinel)) economy.createPlayerAccount(sentinel);
+        } catch (Throwable ignored) {
+            // Providers without explicit accounts create them on first deposit.
+        }
+        double before = balance(economy, sentinel);
+
+        boolean withdrawPlayer = false;
+        if (succeeds(() -> economy.depositPlayer(sentinel, PROBE_AMOUNT))) {
+            withdrawPlayer = succeeds(() -> economy.withdrawPlayer(sentinel, PROBE_AMOUNT));
+            if (!withdrawPlayer && !undo(economy, sentinel, world, PROBE_AMOUNT)) return abandon(economy, logger, PROBE_AMOUNT);
+        }
+
+        boolean withdrawWorld = false;
+        if (world != null && succeeds(() -> economy.depositPlayer(sentinel, world, PROBE_AMOUNT))) {
+            withdrawWorld = succeeds(() -> economy.withdrawPlayer(sentinel, world, PROBE_AMOUNT));
+            if (!withdrawWorld && !undo(economy, sentinel, world, PROBE_AMOUNT)) return abandon(economy, logger, PROBE_AMOUNT);
+        }
+
+        double surplus = balance(economy, sentinel) - before;
+        if (surplus > EPSILON && !undo(economy, sentinel, world, surplus)) return abandon(economy, logger, surplus);
+
+        boolean hasReliable;
+        try {
+            double balance = economy.getBalance(sentinel);
+            hasReliable = economy.has(sentinel, Math.max(0.0, balance))
+                    && !economy.has(sentinel, balance + 1_000_000.0);
+        } catch (Throwable t) {
+            hasReliable = false;
+        }
+
+        if (!withdrawPlayer && !withdrawWorld) {
+            // The sentinel could not be funded (e.g. the provider rejects unknown accounts):
+            // nothing was learned about the withdraw paths, so keep trying all of them.
+            return new VaultCapabilities(false, true, true, hasReliable);
+        }
+        return new VaultCapabilities(true, withdrawPlayer, withdrawWorld, hasReliable);
+    }
+
+    /** Takes {@code amount} back out of the sentinel through whichever withdraw path works. */
+    private static boolean undo(Economy economy, OfflinePlayer sentinel, String world, double amount) {
+        return succeeds(() -> economy.withdrawPlayer(sentinel, amount))
+                || (world != null && succeeds(() -> economy.withdrawPlayer(sentinel, world, amount)));
+    }
+
+    private static VaultCapabilities abandon(Economy economy, Logger logger, double amount) {
+        logger.severe("[Economy-Vault] Could not withdraw the probe deposit of " + amount + " from sentinel account "
+                + SENTINEL + " in " + economy.getName() + "; skipping the provider probe. Remove it manually.");
+        return UNKNOWN;
+    }
+
+    /** Sentinel balance, or {@link Double#NaN} when it cannot be read (disables the surplus check). */
+    private static double balance(Economy economy, OfflinePlayer sentinel) {
+        try {
+            return economy.getBalance(sentinel);
+        } catch (Throwable t) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean succeeds(Supplier<EconomyResponse> call) {
+        try {
+            EconomyResponse r = call.get();
+            return r != null && r.transactionSuccess();
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package dev.cwhead.GravesX.modules.economy.currency;
+
+import dev.cwhead.GravesX.modules.economy.jfr.ProviderCallEvent;
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * {@link CurrencyProvider} backed by a classic Vault {@link Economy}.
+ * <p>
+ * The withdraw and {@code has} paths are chosen from {@link VaultCapabilities} probed
+ * once at hook time, so providers that only implement one overload are called
+ * directly instead of failing over on every charge. Each path counts consecutive
+ * failures (exceptions, {@code null} or {@code NOT_IMPLEMENTED} responses); once a
+ * path reaches {@link #REPROBE_THRESHOLD} the provider is probed again on the global
+ * thread and the paths are rebound when that probe completes. Charges keep using
+ * the current paths meanwhile, so a probe never runs inside a charge.
+ * </p>
+ * <p>
+ * Every call into the economy is timed as a {@link ProviderCallEvent}.
+ * </p>
+ */
+public final class VaultCurrencyProvider implements CurrencyProvider {
+
+    /** Consecutive failures of one path before the provider is probed again. */
+    static final int REPROBE_THRESHOLD = 3;
+
+    private interface Withdrawer {
+        EconomyResponse withdraw(OfflinePlayer p, double amount);
+    }
+
+    private interface HasCheck {
+        boolean has(OfflinePlayer p, double amount);
+    }
+
+    private final Economy economy;
+    private final Function<Economy, VaultCapabilities> prober;
+    private final Logger logger;
+    private final Executor globalThread;
+    private final AtomicBoolean reprobing = new AtomicBoolean();
+    private final AtomicInteger playerFailures = new AtomicInteger();
+    private final AtomicInteger worldFailures = new AtomicInteger();
+    private final AtomicInteger hasFailures = new AtomicInteger();
+
+    private volatile VaultCapabilities capabilities;
+    private volatile Withdrawer withdrawer;
+    private volatile HasCheck hasCheck;
+
+    /**
+     * @param economy      the hooked Vault economy
+     * @param capabilities result of the hook-time probe
+     * @param prober       used to probe again when a bound path starts failing
+     * @param globalThread runs the re-probe (main / global region thread)
+     * @param logger       receives a line whenever the paths are rebound
+     */
+    public VaultCurrencyProvider(Economy economy, VaultCapabilities capabilities,
+                                 Function<Economy, VaultCapabilities> prober, Executor globalThread, Logger logger) {
+        this.economy = economy;
+        this.prober = prober;
+        this.globalThread = globalThread;
+        this.logger = logger;
+        bind(capabilities);
+    }
+
+    /** The wrapped Vault economy. */
+    public Economy economy() {
+        return economy;
+    }
+
+    /** Capabilities the current paths were bound from. */
+    public VaultCapabilities capabilities() {
+        return capabilities;
+    }
+
+    private void bind(VaultCapabilities caps) {
+        this.capabilities = caps;
+
+        if (!caps.probed()) {
+            this.withdrawer = this::withdrawAnyPath;
+        } else if (caps.withdrawPlayer()) {
+            this.withdrawer = this::withdrawPlayerPath;
+        } else {
+            this.withdrawer = this::withdrawWorldPath;
+        }
+
+        this.hasCheck = caps.hasReliable() ? this::hasPath : (p, amount) -> getBalance(p) >= amount;
+    }
+
+    @Override
+    public String getName() {
+        return economy.getName();
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer p) {
+        ProviderCallEvent call = ProviderCallEvent.start();
+        try {
+            double balance = economy.getBalance(p);
+            call.complete(economy, "getBalance(OfflinePlayer)", true);
+            return balance;
+        } catch (RuntimeException e) {
+            call.complete(economy, "getBalance(OfflinePlayer)", false);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean has(OfflinePlayer p, double amount) {
+        return hasCheck.has(p, amount);
+    }
+
+    @Override
+    public EconomyResponse withdraw(OfflinePlayer p, double amount) {
+        EconomyResponse r = withdrawer.withdraw(p, amount);
+        return r != null ? r : failure(amount, "null response");
+    }
+
+    @Override
+    public EconomyResponse deposit(OfflinePlayer p, double amount) {
+        EconomyResponse r = call("depositPlayer(OfflinePlayer,double)", () -> economy.depositPlayer(p, amount));
+        return r != null ? r : failure(amount, "null response");
+    }
+
+    private boolean hasPath(OfflinePlayer p, double amount) {
+        ProviderCallEvent call = ProviderCallEvent.start();
+        try {
+            boolean has = economy.has(p, amount);
+            call.complete(economy, "has(OfflinePlayer,double)", true);
+            hasFailures.set(0);
+            return has;
+        } catch (Throwable t) {
+            call.complete(economy, "has(OfflinePlayer,double)", false);
+            failed(hasFailures, "has(OfflinePlayer,double)");
+            return getBalance(p) >= amount;
+        }
+    }
+
+    private EconomyResponse withdrawPlayerPath(OfflinePlayer p, double amount) {
+        EconomyResponse r = call("withdrawPlayer(OfflinePlayer,double)", () -> economy.withdrawPlayer(p, amount));
+        if (works(r)) {
+            playerFailures.set(0);
+            return r;
+        }
+        failed(playerFailures, "withdrawPlayer(OfflinePlayer,double)");
+        return capabilities.withdrawWorld() ? withdrawWorldPath(p, amount) : r;
+    }
+
+    private EconomyResponse withdrawWorldPath(OfflinePlayer p, double amount) {
+        Player online = p.getPlayer();
+        if (online == null) return failure(amount, "world-scoped withdraw needs an online player");
+        String world = online.getWorld().getName();
+        EconomyResponse r = call("withdrawPlayer(OfflinePlayer,String,double)", () -> economy.withdrawPlayer(p, world, amount));
+        if (works(r)) {
+            worldFailures.set(0);
+            return r;
+        }
+        failed(worldFailures, "withdrawPlayer(OfflinePlayer,String,double)");
+        return r;
+    }
+
+    /** A path works if it answered at all and did not report the overload as unsupported. */
+    private static boolean works(EconomyResponse r) {
+        return r != null && r.type != EconomyResponse.ResponseType.NOT_IMPLEMENTED;
+    }
+
+    /** Unprobed fallback: the player overload, then the world overload on any failure. */
+    private EconomyResponse withdrawAnyPath(OfflinePlayer p, double amount) {
+        EconomyResponse r = call("withdrawPlayer(OfflinePlayer,double)", () -> economy.withdrawPlayer(p, amount));
+
+        Player online = p.getPlayer();
+        if ((r == null || !r.transactionSuccess()) && online != null) {
+            String world = online.getWorld().getName();
+            EconomyResponse viaWorld = call("withdrawPlayer(OfflinePlayer,String,double)",
+                    () -> economy.withdrawPlayer(p, world, amount));
+            if (viaWorld != null) r = viaWorld;
+        }
+        return r;
+    }
+
+    /** Runs one transaction call, timed; exceptions become {@code null}. */
+    private EconomyResponse call(String method, Supplier<EconomyResponse> transaction) {
+        ProviderCallEvent call = ProviderCallEvent.start();
+        EconomyResponse r;
+        try {
+            r = transaction.get();
+        } catch (Throwable t) {
+            r = null;
+        }
+        call.complete(economy, method, r != null && r.transactionSuccess());
+        return r;
+    }
+
+    private void failed(AtomicInteger counter, String path) {
+        if (counter.incrementAndGet() < REPROBE_THRESHOLD) return;
+        counter.set(0);
+        if (!reprobing.compareAndSet(false, true)) return;
+
+        globalThread.execute(() -> {
+            try {
+                VaultCapabilities fresh = prober.apply(economy);
+                logger.warning("[Economy-Vault] " + path + " failed " + REPROBE_THRESHOLD
+                        + " times in a row; re-probed " + economy.getName() + ": " + fresh);
+                bind(fresh);
+            } finally {
+                reprobing.set(false);
+            }
+        });
+    }
+
+    private static EconomyResponse failure(double amount, String message) {
+        return new EconomyResponse(amount, 0.0, EconomyResponse.ResponseType.FAILURE, message);
+    }
+}
@@ -0,0 +1,188 @@
+package dev.cwhead.GravesX.modules.economy.currency;
+
+import dev.cwhead.GravesX.modules.economy.jfr.ProviderCallEvent;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredServiceProvider;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link CurrencyProvider} for a named currency of a VaultUnlocked
+ * ({@code net.milkbowl.vault2.economy.Economy}) multi-currency provider.
+ * <p>
+ * VaultUnlocked is not a compile-time dependency; the service and its
+ * methods are resolved reflectively once in {@link #resolve(String, String)}
+ * and bound to the registered provider instance.
+ * </p>
+ * <p>
+ * VaultUnlocked only takes a currency together with a world name. Online players
+ * are charged in their current world; offline players (revenue accounts, deferred
+ * charges) in the server's primary world.
+ * </p>
+ * <p>
+ * Every call into the provider is timed as a {@link ProviderCallEvent}.
+ * </p>
+ */
+public final class VaultUnlockedCurrencyProvider implements CurrencyProvider {
+
+    private static final String SERVICE_CLASS = "net.milkbowl.vault2.economy.Economy";
+
+    private final String pluginName;
+    private final String currency;
+    private final String displayName;
+    private final MethodHandle balance;
+    private final MethodHandle has;
+    private final MethodHandle withdraw;
+    private final MethodHandle deposit;
+    private final MethodHandle success;
+    private final MethodHandle error;
+
+    private VaultUnlockedCurrencyProvider(String pluginName, String currency, String displayName,
+                                          MethodHandle balance, MethodHandle has,
+                                          MethodHandle withdraw, MethodHandle deposit,
+                                          MethodHandle success, MethodHandle error) {
+        this.pluginName = pluginName;
+        this.currency = currency;
+        this.displayName = displayName;
+        this.balance = balance;
+        this.has = has;
+        this.withdraw = withdraw;
+        this.deposit = deposit;
+        this.success = success;
+        this.error = error;
+    }
+
+    /**
+     * Binds to the registered VaultUnlocked economy.
+     *
+     * @param pluginName name reported to the provider as the caller
+     * @param currency   currency identifier, blank for the provider's default currency
+     * @return provider, or {@code null} if VaultUnlocked or a multi-currency provider is missing
+     */
+    public static VaultUnlockedCurrencyProvider resolve(String pluginName, String currency) {
+        try {
+            Plugin vault = Bukkit.getPluginManager().getPlugin("Vault");
+            if (vault == null) return null;
+
+            Class<?> service = Class.forName(SERVICE_CLASS, true, vault.getClass().getClassLoader());
+            RegisteredServiceProvider<?> rsp = Bukkit.getServicesManager().getRegistration(service);
+            if (rsp == null) return null;
+            Object economy = rsp.getProvider();
+
+            String cur = currency == null || currency.isBlank()
+                    ? (String) service.getMethod("getDefaultCurrency", String.class).invoke(economy, pluginName)
+                    : currency;
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> response = service.getMethod("withdraw", String.class, UUID.class, String.class, String.class, BigDecimal.class).getReturnType();
+
+            MethodHandle balance = findBalance(lookup, service).bindTo(economy);
+            MethodHandle has = lookup.findVirtual(service, "has",
+                    MethodType.methodType(boolean.class, String.class, UUID.class, String.class, String.class, BigDecimal.class)).bindTo(economy);
+            MethodHandle withdraw = lookup.findVirtual(service, "withdraw",
+                    MethodType.methodType(response, String.class, UUID.class, String.class, String.class, BigDecimal.class)).bindTo(economy)
+                    .asType(MethodType.methodType(Object.class, String.class, UUID.class, String.class, String.class, BigDecimal.class));
+            MethodHandle deposit = lookup.findVirtual(service, "deposit",
+                    MethodType.methodType(response, String.class, UUID.class, String.class, String.class, BigDecimal.class)).bindTo(economy)
+                    .asType(MethodType.methodType(Object.class, String.class, UUID.class, String.class, String.class, BigDecimal.class));
+            MethodHandle success = lookup.findVirtual(response, "transactionSuccess", MethodType.methodType(boolean.class))
+                    .asType(MethodType.methodType(boolean.class, Object.class));
+            MethodHandle error = lookup.findGetter(response, "errorMessage", String.class)
+                    .asType(MethodType.methodType(String.class, Object.class));
+
+            String name = rsp.getPlugin().getName() + ":" + cur;
+            return new VaultUnlockedCurrencyProvider(pluginName, cur, name, balance, has, withdraw, deposit, success, error);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    /** VaultUnlocked renamed {@code getBalance} to {@code balance}; accept either. */
+    private static MethodHandle findBalance(MethodHandles.Lookup lookup, Class<?> service) throws ReflectiveOperationException {
+        MethodType type = MethodType.methodType(BigDecimal.class, String.class, UUID.class, String.class, String.class);
+        try {
+            return lookup.findVirtual(service, "balance", type);
+        } catch (NoSuchMethodException ex) {
+            return lookup.findVirtual(service, "getBalance", type);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return displayName;
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer p) {
+        ProviderCallEvent call = ProviderCallEvent.start();
+        try {
+            double value = ((BigDecimal) balance.invokeExact(pluginName, p.getUniqueId(), world(p), currency)).doubleValue();
+            call.complete(this, "balance", true);
+            return value;
+        } catch (Throwable t) {
+            call.complete(this, "balance", false);
+            return 0.0;
+        }
+    }
+
+    @Override
+    public boolean has(OfflinePlayer p, double amount) {
+        ProviderCallEvent call = ProviderCallEvent.start();
+        try {
+            boolean result = (boolean) has.invokeExact(pluginName, p.getUniqueId(), world(p), currency, BigDecimal.valueOf(amount));
+            call.complete(this, "has", true);
+            return result;
+        } catch (Throwable t) {
+            call.complete(this, "has", false);
+            return getBalance(p) >= amount;
+        }
+    }
+
+    @Override
+    public EconomyResponse withdraw(OfflinePlayer p, double amount) {
+        return call(withdraw, "withdraw", p, amount);
+    }
+
+    @Override
+    public EconomyResponse deposit(OfflinePlayer p, double amount) {
+        return call(deposit, "deposit", p, amount);
+    }
+
+    private EconomyResponse call(MethodHandle op, String method, OfflinePlayer p, double amount) {
+        ProviderCallEvent call = ProviderCallEvent.start();
+        Object r;
+        boolean ok;
+        String message;
+        try {
+            r = (Object) op.invokeExact(pluginName, p.getUniqueId(), world(p), currency, BigDecimal.valueOf(amount));
+            ok = r != null && (boolean) success.invokeExact(r);
+            message = r == null ? "null response" : ok ? null : (String) error.invokeExact(r);
+        } catch (Throwable t) {
+            call.complete(this, method, false);
+            return new EconomyResponse(amount, 0.0, EconomyResponse.ResponseType.FAILURE, String.valueOf(t.getMessage()));
+        }
+        call.complete(this, method, ok);
+
+        if (r == null) return new EconomyResponse(amount, 0.0, EconomyResponse.ResponseType.FAILURE, message);
+        return new EconomyResponse(amount, getBalance(p),
+                ok ? EconomyResponse.ResponseType.SUCCESS : EconomyResponse.ResponseType.FAILURE, message);
+    }
+
+    private static String world(OfflinePlayer p) {
+        Player online = p.getPlayer();
+        if (online != null) return online.getWorld().getName();
+        List<World> worlds = Bukkit.getWorlds();
+        if (worlds.isEmpty()) throw new IllegalStateException("no world loaded for offline account " + p.getUniqueId());
+        return worlds.get(0).getName();
+    }
+}
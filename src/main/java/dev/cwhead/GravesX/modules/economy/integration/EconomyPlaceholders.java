@@ -1,7 +1,10 @@
 package dev.cwhead.GravesX.modules.economy.integration;
 
 import dev.cwhead.GravesX.module.ModuleContext;
+import dev.cwhead.GravesX.modules.economy.ChargeConfig;
+import dev.cwhead.GravesX.modules.economy.limit.AttemptThrottle;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -57,6 +60,16 @@ public class EconomyPlaceholders extends PlaceholderExpansion{
             return getCurrencySymbol();
         }
 
+        if (lower.endsWith("_rejected_throttled")) {
+            String type = lower.substring(0, lower.length() - "_rejected_throttled".length());
+            return getRejections(type, AttemptThrottle.Rejection.THROTTLED);
+        }
+
+        if (lower.endsWith("_rejected_insufficient")) {
+            String type = lower.substring(0, lower.length() - "_rejected_insufficient".length());
+            return getRejections(type, AttemptThrottle.Rejection.INSUFFICIENT_CACHED);
+        }
+
         if (lower.endsWith("_cost_percentage")) {
             String type = lower.substring(0, lower.length() - "_cost_percentage".length());
             return getTypePercent(type);
@@ -87,6 +100,12 @@ public class EconomyPlaceholders extends PlaceholderExpansion{
         String symbol = getCurrencySymbol();
         int decimals = config.getInt("economy.round-to-decimals", 2);
 
+        ConfigurationSection currency = getTypeCurrency(section);
+        if (currency != null) {
+            symbol = currency.getString("symbol", symbol);
+            decimals = currency.getInt("round-to-decimals", decimals);
+        }
+
         BigDecimal bd = BigDecimal.valueOf(fixed).setScale(decimals, RoundingMode.HALF_UP);
         String value = bd.stripTrailingZeros().toPlainString();
 
@@ -107,6 +126,25 @@ public class EconomyPlaceholders extends PlaceholderExpansion{
         return bd.toPlainString() + "%";
     }
 
+    private String getRejections(String type, AttemptThrottle.Rejection reason) {
+        AttemptThrottle throttle = Bukkit.getServicesManager().load(AttemptThrottle.class);
+        if (throttle == null) return "";
+
+        for (ChargeConfig.Type t : ChargeConfig.Type.values()) {
+            if (t.name().equalsIgnoreCase(type)) {
+                return Long.toString(throttle.rejections(reason, t));
+            }
+        }
+        return "";
+    }
+
+    private ConfigurationSection getTypeCurrency(ConfigurationSection typeSection) {
+        String id = typeSection.getString("currency");
+        if (id == null || id.isEmpty()) return null;
+        ConfigurationSection currencies = config.getConfigurationSection("currencies");
+        return currencies == null ? null : currencies.getConfigurationSection(id);
+    }
+
     private ConfigurationSection getTypeSection(String type) {
         if (type == null || type.isEmpty()) return null;
         ConfigurationSection types = config.getConfigurationSection("types");
@@ -0,0 +1,43 @@
+package dev.cwhead.GravesX.modules.economy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One charge decision made by the grave event handlers, timed from the start of the
+ * decision to the final allow / cancel, including any provider calls in between.
+ * Throttled attempts are committed with no duration.
+ * <p>
+ * Disabled unless a recording enables it (see {@code jfr/gravesx-economy.jfc}).
+ * </p>
+ */
+@Name("dev.cwhead.gravesx.economy.ChargeDecision")
+@Label("Grave Charge Decision")
+@Category({"GravesX", "Economy"})
+@Description("Outcome and duration of one grave action charge decision")
+@Enabled(false)
+@StackTrace(false)
+public final class ChargeDecisionEvent extends Event {
+
+    @Label("Type")
+    public String type;
+
+    @Label("Player")
+    public String player;
+
+    @Label("Cost")
+    @Description("Amount charged or that would have been charged; 0 when no cost was computed")
+    public double cost;
+
+    @Label("Outcome")
+    @Description("charged, free, limit, insufficient, insufficient_cached, failed, throttled, no_cost, no_provider, disabled, deferred, startup_free or startup_denied")
+    public String outcome;
+
+    @Label("Cancelled")
+    public boolean cancelled;
+}
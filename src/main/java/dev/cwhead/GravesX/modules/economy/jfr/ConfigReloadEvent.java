@@ -0,0 +1,28 @@
+package dev.cwhead.GravesX.modules.economy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code /graveecon reload}: config file, compiled {@code ChargeConfig},
+ * provider re-resolution and language files.
+ * <p>
+ * Disabled unless a recording enables it (see {@code jfr/gravesx-economy.jfc}).
+ * </p>
+ */
+@Name("dev.cwhead.gravesx.economy.ConfigReload")
+@Label("Economy Config Reload")
+@Category({"GravesX", "Economy"})
+@Description("Duration of /graveecon reload")
+@Enabled(false)
+@StackTrace(false)
+public final class ConfigReloadEvent extends Event {
+
+    @Label("Success")
+    public boolean success;
+}
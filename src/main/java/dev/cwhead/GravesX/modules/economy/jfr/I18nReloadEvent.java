@@ -0,0 +1,34 @@
+package dev.cwhead.GravesX.modules.economy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reading and compiling every language file.
+ * <p>
+ * Disabled unless a recording enables it (see {@code jfr/gravesx-economy.jfc}).
+ * </p>
+ */
+@Name("dev.cwhead.gravesx.economy.I18nReload")
+@Label("Language Files Reload")
+@Category({"GravesX", "Economy"})
+@Description("Duration of loading and compiling the language files")
+@Enabled(false)
+@StackTrace(false)
+public final class I18nReloadEvent extends Event {
+
+    @Label("Format")
+    public String format;
+
+    @Label("Languages")
+    public int languages;
+
+    @Label("Messages")
+    @Description("Number of messages compiled across all languages")
+    public int messages;
+}
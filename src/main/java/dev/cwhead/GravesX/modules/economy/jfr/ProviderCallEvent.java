@@ -0,0 +1,67 @@
+package dev.cwhead.GravesX.modules.economy.jfr;
+
+import dev.cwhead.GravesX.modules.economy.currency.CurrencyProvider;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import net.milkbowl.vault.economy.Economy;
+
+/**
+ * One call into a Vault {@link Economy} or a non-Vault {@link CurrencyProvider} backend
+ * (VaultUnlocked, PlayerPoints) made on behalf of a charge.
+ * <p>
+ * Disabled unless a recording enables it (see {@code jfr/gravesx-economy.jfc}).
+ * </p>
+ */
+@Name("dev.cwhead.gravesx.economy.ProviderCall")
+@Label("Economy Provider Call")
+@Category({"GravesX", "Economy"})
+@Description("Latency of one call into the Vault economy or a currency provider")
+@Enabled(false)
+@StackTrace(false)
+public final class ProviderCallEvent extends Event {
+
+    @Label("Provider")
+    public String provider;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Success")
+    @Description("The call returned normally and, for transactions, reported success")
+    public boolean success;
+
+    /** Creates the event and starts its timer. */
+    public static ProviderCallEvent start() {
+        ProviderCallEvent event = new ProviderCallEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stops the timer and commits the event if the recording wants it; fields are only
+     * filled (and {@code getName()} only called) in that case.
+     */
+    public void complete(Economy economy, String method, boolean success) {
+        end();
+        if (!shouldCommit()) return;
+        this.provider = economy.getName();
+        this.method = method;
+        this.success = success;
+        commit();
+    }
+
+    /** Like {@link #complete(Economy, String, boolean)} for a non-Vault currency provider. */
+    public void complete(CurrencyProvider provider, String method, boolean success) {
+        end();
+        if (!shouldCommit()) return;
+        this.provider = provider.getName();
+        this.method = method;
+        this.success = success;
+        commit();
+    }
+}
@@ -0,0 +1,44 @@
+package dev.cwhead.GravesX.modules.economy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A message key missing from the player's language.
+ * <p>
+ * Disabled unless a recording enables it (see {@code jfr/gravesx-economy.jfc}).
+ * </p>
+ */
+@Name("dev.cwhead.gravesx.economy.TranslationMiss")
+@Label("Translation Miss")
+@Category({"GravesX", "Economy"})
+@Description("A message key missing from the requested language")
+@Enabled(false)
+@StackTrace(false)
+public final class TranslationMissEvent extends Event {
+
+    @Label("Key")
+    public String key;
+
+    @Label("Locale")
+    public String locale;
+
+    @Label("Resolved By Default")
+    @Description("The default language had the key; false means no message was sent")
+    public boolean fallback;
+
+    /** Commits a miss if the recording wants it. */
+    public static void emit(String key, String locale, boolean fallback) {
+        TranslationMissEvent event = new TranslationMissEvent();
+        if (!event.shouldCommit()) return;
+        event.key = key;
+        event.locale = locale;
+        event.fallback = fallback;
+        event.commit();
+    }
+}
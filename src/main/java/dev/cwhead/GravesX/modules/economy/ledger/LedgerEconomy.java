@@ -0,0 +1,327 @@
+package dev.cwhead.GravesX.modules.economy.ledger;
+
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Minimal built-in Vault {@link Economy} for servers without an economy plugin.
+ * <p>
+ * Registered by the module only when {@code ledger.enabled} is set and no other
+ * provider exists. Balances are global (world arguments are ignored) and banks are
+ * not supported. See {@link LedgerStore} for storage and persistence.
+ * </p>
+ */
+public final class LedgerEconomy implements Economy {
+
+    private static final String NAME = "GravesX-Ledger";
+
+    private final LedgerStore store;
+    private final long startingUnits;
+    private final int fractionalDigits;
+    private final String singular;
+    private final String plural;
+
+    /**
+     * @param folder  folder holding {@code ledger.dat} and {@code ledger.log}
+     * @param section the {@code ledger} config section, may be {@code null}
+     */
+    public LedgerEconomy(File folder, ConfigurationSection section) {
+        this.store = new LedgerStore(folder);
+        this.startingUnits = LedgerStore.toUnits(section == null ? 0.0 : Math.max(0.0, section.getDouble("starting-balance", 0.0)));
+        this.fractionalDigits = section == null ? 2 : Math.max(0, Math.min(4, section.getInt("fractional-digits", 2)));
+        this.singular = section == null ? "Coin" : section.getString("currency-name-singular", "Coin");
+        this.plural = section == null ? "Coins" : section.getString("currency-name-plural", "Coins");
+    }
+
+    /** Loads persisted balances; must be called before registering the service. */
+    public void open() throws IOException {
+        store.open();
+    }
+
+    /** Appends queued changes to the log. Intended for an async timer. */
+    public void flush() throws IOException {
+        store.flush();
+    }
+
+    /** Folds the log into a fresh snapshot. Intended for an async timer. */
+    public void compact() throws IOException {
+        store.compact();
+    }
+
+    /** Persists everything and closes the log. */
+    public void close() throws IOException {
+        store.close();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean hasBankSupport() {
+        return false;
+    }
+
+    @Override
+    public int fractionalDigits() {
+        return fractionalDigits;
+    }
+
+    @Override
+    public String format(double amount) {
+        String value = BigDecimal.valueOf(amount).setScale(fractionalDigits, RoundingMode.HALF_UP).toPlainString();
+        return value + " " + (amount == 1.0 ? singular : plural);
+    }
+
+    @Override
+    public String currencyNamePlural() {
+        return plural;
+    }
+
+    @Override
+    public String currencyNameSingular() {
+        return singular;
+    }
+
+    // --- accounts ---------------------------------------------------------------------
+
+    @Override
+    @Deprecated
+    public boolean hasAccount(String playerName) {
+        return hasAccount(byName(playerName));
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player) {
+        return store.exists(player.getUniqueId());
+    }
+
+    @Override
+    @Deprecated
+    public boolean hasAccount(String playerName, String worldName) {
+        return hasAccount(byName(playerName));
+    }
+
+    @Override
+    public boolean hasAccount(OfflinePlayer player, String worldName) {
+        return hasAccount(player);
+    }
+
+    @Override
+    @Deprecated
+    public boolean createPlayerAccount(String playerName) {
+        return createPlayerAccount(byName(playerName));
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player) {
+        return store.create(player.getUniqueId(), startingUnits);
+    }
+
+    @Override
+    @Deprecated
+    public boolean createPlayerAccount(String playerName, String worldName) {
+        return createPlayerAccount(byName(playerName));
+    }
+
+    @Override
+    public boolean createPlayerAccount(OfflinePlayer player, String worldName) {
+        return createPlayerAccount(player);
+    }
+
+    // --- balances ---------------------------------------------------------------------
+
+    @Override
+    @Deprecated
+    public double getBalance(String playerName) {
+        return getBalance(byName(playerName));
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player) {
+        UUID id = player.getUniqueId();
+        return LedgerStore.toAmount(store.exists(id) ? store.balance(id) : startingUnits);
+    }
+
+    @Override
+    @Deprecated
+    public double getBalance(String playerName, String world) {
+        return getBalance(byName(playerName));
+    }
+
+    @Override
+    public double getBalance(OfflinePlayer player, String world) {
+        return getBalance(player);
+    }
+
+    @Override
+    @Deprecated
+    public boolean has(String playerName, double amount) {
+        return has(byName(playerName), amount);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, double amount) {
+        return getBalance(player) >= amount;
+    }
+
+    @Override
+    @Deprecated
+    public boolean has(String playerName, String worldName, double amount) {
+        return has(byName(playerName), amount);
+    }
+
+    @Override
+    public boolean has(OfflinePlayer player, String worldName, double amount) {
+        return has(player, amount);
+    }
+
+    // --- transactions -----------------------------------------------------------------
+
+    @Override
+    @Deprecated
+    public EconomyResponse withdrawPlayer(String playerName, double amount) {
+        return withdrawPlayer(byName(playerName), amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, double amount) {
+        if (amount < 0) return failure(amount, 0.0, "Cannot withdraw negative funds");
+
+        UUID id = player.getUniqueId();
+        long after = store.withdraw(id, LedgerStore.toUnits(amount), startingUnits);
+        if (after < 0) return failure(amount, LedgerStore.toAmount(store.balance(id)), "Insufficient funds");
+        return new EconomyResponse(amount, LedgerStore.toAmount(after), EconomyResponse.ResponseType.SUCCESS, null);
+    }
+
+    @Override
+    @Deprecated
+    public EconomyResponse withdrawPlayer(String playerName, String worldName, double amount) {
+        return withdrawPlayer(byName(playerName), amount);
+    }
+
+    @Override
+    public EconomyResponse withdrawPlayer(OfflinePlayer player, String worldName, double amount) {
+        return withdrawPlayer(player, amount);
+    }
+
+    @Override
+    @Deprecated
+    public EconomyResponse depositPlayer(String playerName, double amount) {
+        return depositPlayer(byName(playerName), amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, double amount) {
+        if (amount < 0) return failure(amount, 0.0, "Cannot deposit negative funds");
+
+        long after = store.deposit(player.getUniqueId(), LedgerStore.toUnits(amount), startingUnits);
+        return new EconomyResponse(amount, LedgerStore.toAmount(after), EconomyResponse.ResponseType.SUCCESS, null);
+    }
+
+    @Override
+    @Deprecated
+    public EconomyResponse depositPlayer(String playerName, String worldName, double amount) {
+        return depositPlayer(byName(playerName), amount);
+    }
+
+    @Override
+    public EconomyResponse depositPlayer(OfflinePlayer player, String worldName, double amount) {
+        return depositPlayer(player, amount);
+    }
+
+    // --- banks (unsupported) ----------------------------------------------------------
+
+    @Override
+    @Deprecated
+    public EconomyResponse createBank(String name, String player) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse createBank(String name, OfflinePlayer player) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse deleteBank(String name) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankBalance(String name) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankHas(String name, double amount) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankWithdraw(String name, double amount) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse bankDeposit(String name, double amount) {
+        return noBanks();
+    }
+
+    @Override
+    @Deprecated
+    public EconomyResponse isBankOwner(String name, String playerName) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse isBankOwner(String name, OfflinePlayer player) {
+        return noBanks();
+    }
+
+    @Override
+    @Deprecated
+    public EconomyResponse isBankMember(String name, String playerName) {
+        return noBanks();
+    }
+
+    @Override
+    public EconomyResponse isBankMember(String name, OfflinePlayer player) {
+        return noBanks();
+    }
+
+    @Override
+    public List<String> getBanks() {
+        return Collections.emptyList();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static OfflinePlayer byName(String playerName) {
+        return Bukkit.getOfflinePlayer(playerName);
+    }
+
+    private static EconomyResponse failure(double amount, double balance, String message) {
+        return new EconomyResponse(amount, balance, EconomyResponse.ResponseType.FAILURE, message);
+    }
+
+    private static EconomyResponse noBanks() {
+        return new EconomyResponse(0.0, 0.0, EconomyResponse.ResponseType.NOT_IMPLEMENTED, NAME + " does not support banks");
+    }
+}
@@ -0,0 +1,227 @@
+package dev.cwhead.GravesX.modules.economy.ledger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balances of the embedded ledger, held in memory and persisted through an append-only log.
+ * <p>
+ * Balances are fixed-point {@code long}s ({@link #SCALE} units per 1.0) in a
+ * {@link ConcurrentHashMap} of {@link AtomicLong}s, so updates are a single CAS on the
+ * account and never block. Every change is queued as a delta; {@link #flush()} appends
+ * queued deltas to {@code ledger.log}, and {@link #compact()} folds the log into the
+ * {@code ledger.dat} snapshot.
+ * </p>
+ * <p>
+ * Only deltas that reached the log are folded into the snapshot, so changes still queued
+ * during compaction are neither lost nor counted twice. Both files carry a generation
+ * number; a log is only replayed on top of the snapshot of the same generation, which
+ * makes a crash between writing a snapshot and starting the next log harmless.
+ * </p>
+ */
+final class LedgerStore {
+
+    /** Fixed-point units per 1.0 of currency. */
+    static final long SCALE = 10_000L;
+
+    private static final int MAGIC = 0x47584C47; // "GXLG"
+
+    private final Map<UUID, AtomicLong> balances = new ConcurrentHashMap<>();
+    private final Queue<long[]> pending = new ConcurrentLinkedQueue<>();
+    private final File snapshotFile;
+    private final File logFile;
+
+    /** Sum of all deltas written to disk; touched only under this store's monitor. */
+    private final Map<UUID, Long> persisted = new HashMap<>();
+    private long generation;
+    private DataOutputStream log;
+
+    LedgerStore(File folder) {
+        this.snapshotFile = new File(folder, "ledger.dat");
+        this.logFile = new File(folder, "ledger.log");
+    }
+
+    static long toUnits(double amount) {
+        return Math.round(amount * SCALE);
+    }
+
+    static double toAmount(long units) {
+        return units / (double) SCALE;
+    }
+
+    /** Loads the snapshot, replays the matching log, and opens the log for appending. */
+    synchronized void open() throws IOException {
+        File folder = snapshotFile.getParentFile();
+        if (folder != null && !folder.exists()) folder.mkdirs();
+
+        generation = 0L;
+        if (snapshotFile.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+                if (in.readInt() != MAGIC) throw new IOException("Unrecognised ledger snapshot: " + snapshotFile);
+                generation = in.readLong();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    persisted.put(new UUID(in.readLong(), in.readLong()), in.readLong());
+                }
+            }
+        }
+
+        boolean appendToLog = false;
+        if (logFile.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)))) {
+                if (in.readInt() == MAGIC && in.readLong() == generation) {
+                    appendToLog = true;
+                    while (true) {
+                        UUID id;
+                        long delta;
+                        try {
+                            id = new UUID(in.readLong(), in.readLong());
+                            delta = in.readLong();
+                        } catch (EOFException eof) {
+                            break; // clean end, or a torn final record from a crash
+                        }
+                        persisted.merge(id, delta, Long::sum);
+                    }
+                }
+            } catch (EOFException ignored) {
+                // Header never fully written; treat as an empty log.
+            }
+        }
+
+        for (Map.Entry<UUID, Long> e : persisted.entrySet()) {
+            balances.put(e.getKey(), new AtomicLong(e.getValue()));
+        }
+
+        if (appendToLog) {
+            // Rewrite instead of appending: a torn trailing record would misalign everything after it.
+            compact();
+        } else {
+            startLog();
+        }
+    }
+
+    boolean exists(UUID id) {
+        return balances.containsKey(id);
+    }
+
+    /** Creates the account with {@code startingUnits} if it does not exist yet. */
+    boolean create(UUID id, long startingUnits) {
+        AtomicLong fresh = new AtomicLong(0L);
+        if (balances.putIfAbsent(id, fresh) != null) return false;
+        if (startingUnits != 0L) add(id, fresh, startingUnits);
+        return true;
+    }
+
+    long balance(UUID id) {
+        AtomicLong acct = balances.get(id);
+        return acct == null ? 0L : acct.get();
+    }
+
+    /**
+     * Subtracts {@code units} if the balance covers it.
+     *
+     * @return the new balance, or {@code -1} if funds are insufficient
+     */
+    long withdraw(UUID id, long units, long startingUnits) {
+        AtomicLong acct = account(id, startingUnits);
+        while (true) {
+            long cur = acct.get();
+            if (cur < units) return -1L;
+            if (acct.compareAndSet(cur, cur - units)) {
+                pending.add(new long[]{id.getMostSignificantBits(), id.getLeastSignificantBits(), -units});
+                return cur - units;
+            }
+        }
+    }
+
+    /** Adds {@code units} and returns the new balance. */
+    long deposit(UUID id, long units, long startingUnits) {
+        return add(id, account(id, startingUnits), units);
+    }
+
+    private long add(UUID id, AtomicLong acct, long units) {
+        long after = acct.addAndGet(units);
+        pending.add(new long[]{id.getMostSignificantBits(), id.getLeastSignificantBits(), units});
+        return after;
+    }
+
+    private AtomicLong account(UUID id, long startingUnits) {
+        AtomicLong acct = balances.get(id);
+        if (acct != null) return acct;
+        create(id, startingUnits);
+        return balances.get(id);
+    }
+
+    /** Appends every queued delta to the log. */
+    synchronized void flush() throws IOException {
+        if (log == null) return;
+        long[] d;
+        boolean wrote = false;
+        while ((d = pending.poll()) != null) {
+            log.writeLong(d[0]);
+            log.writeLong(d[1]);
+            log.writeLong(d[2]);
+            persisted.merge(new UUID(d[0], d[1]), d[2], Long::sum);
+            wrote = true;
+        }
+        if (wrote) log.flush();
+    }
+
+    /** Flushes, writes a new snapshot of everything logged so far, and starts a fresh log. */
+    synchronized void compact() throws IOException {
+        flush();
+        closeLog();
+
+        generation++;
+        File tmp = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeLong(generation);
+            out.writeInt(persisted.size());
+            for (Map.Entry<UUID, Long> e : persisted.entrySet()) {
+                out.writeLong(e.getKey().getMostSignificantBits());
+                out.writeLong(e.getKey().getLeastSignificantBits());
+                out.writeLong(e.getValue());
+            }
+        }
+        Files.move(tmp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        startLog();
+    }
+
+    /** Compacts and closes the log. */
+    synchronized void close() throws IOException {
+        if (log == null) return;
+        compact();
+        closeLog();
+    }
+
+    private void startLog() throws IOException {
+        log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile, false)));
+        log.writeInt(MAGIC);
+        log.writeLong(generation);
+        log.flush();
+    }
+
+    private void closeLog() throws IOException {
+        if (log == null) return;
+        log.close();
+        log = null;
+    }
+}
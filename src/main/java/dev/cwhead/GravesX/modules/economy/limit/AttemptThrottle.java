@@ -0,0 +1,127 @@
+package dev.cwhead.GravesX.modules.economy.limit;
+
+import dev.cwhead.GravesX.modules.economy.ChargeConfig;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-player, per-{@link ChargeConfig.Type} attempt throttle.
+ * <p>
+ * Each player has one token bucket per type, refilled lazily from {@link ThrottlePolicy}
+ * on every attempt; an attempt that finds the bucket empty is rejected before any
+ * economy work. The last "insufficient funds" result per type is kept, with the cost
+ * that could not be paid, for {@link ThrottlePolicy#insufficientWindowNanos()}; retries
+ * inside that window costing at least as much are answered from memory instead of
+ * the provider, while cheaper retries still ask the provider.
+ * </p>
+ * <p>
+ * State lives only in memory and is dropped when the player quits. Rejections are
+ * counted per type and reason for {@code /graveecon stats} and PlaceholderAPI.
+ * </p>
+ */
+public final class AttemptThrottle {
+
+    /** Why an attempt was rejected without reaching the provider. */
+    public enum Rejection {
+        /** The player's token bucket for the type was empty. */
+        THROTTLED,
+        /** A recent insufficient-funds result for the type was reused. */
+        INSUFFICIENT_CACHED
+    }
+
+    private static final ChargeConfig.Type[] TYPES = ChargeConfig.Type.values();
+
+    private final Map<UUID, State> states = new ConcurrentHashMap<>();
+    private final LongAdder[][] rejections = new LongAdder[Rejection.values().length][TYPES.length];
+
+    public AttemptThrottle() {
+        for (LongAdder[] byType : rejections) {
+            for (int i = 0; i < byType.length; i++) byType[i] = new LongAdder();
+        }
+    }
+
+    /** Per-player buckets, indexed by type ordinal; guarded by its own monitor. */
+    private static final class State {
+        final double[] tokens = new double[TYPES.length];
+        final long[] refilledAt = new long[TYPES.length];
+        final boolean[] started = new boolean[TYPES.length];
+        final long[] insufficientUntil = new long[TYPES.length];
+        final double[] insufficientCost = new double[TYPES.length];
+    }
+
+    /**
+     * Takes one token from the player's bucket for {@code type}.
+     *
+     * @param now {@link System#nanoTime()} of the attempt
+     * @return {@code true} if the attempt may proceed, {@code false} if it was throttled
+     */
+    public boolean tryAcquire(ThrottlePolicy policy, UUID id, ChargeConfig.Type type, long now) {
+        State s = states.computeIfAbsent(id, k -> new State());
+        int i = type.ordinal();
+        double burst = policy.burst(type);
+
+        synchronized (s) {
+            if (!s.started[i]) {
+                s.started[i] = true;
+                s.tokens[i] = burst;
+            } else {
+                double refilled = s.tokens[i] + (now - s.refilledAt[i]) * policy.tokensPerNano(type);
+                s.tokens[i] = Math.min(burst, refilled);
+            }
+            s.refilledAt[i] = now;
+
+            if (s.tokens[i] < 1.0) {
+                rejections[Rejection.THROTTLED.ordinal()][i].increment();
+                return false;
+            }
+            s.tokens[i] -= 1.0;
+            return true;
+        }
+    }
+
+    /**
+     * Whether a recent insufficient-funds result for {@code type} covers an attempt
+     * costing {@code cost}: the result is still inside its window and {@code cost} is
+     * not lower than the cost that could not be paid. A hit is counted as an
+     * {@link Rejection#INSUFFICIENT_CACHED} rejection.
+     */
+    public boolean recentInsufficient(UUID id, ChargeConfig.Type type, double cost, long now) {
+        State s = states.get(id);
+        if (s == null) return false;
+        int i = type.ordinal();
+
+        synchronized (s) {
+            // insufficientCost stays 0 until a result is recorded (recorded costs are always positive).
+            double unpaid = s.insufficientCost[i];
+            if (!(unpaid > 0.0) || now - s.insufficientUntil[i] >= 0L || cost < unpaid) return false;
+            rejections[Rejection.INSUFFICIENT_CACHED.ordinal()][i].increment();
+            return true;
+        }
+    }
+
+    /** Remembers that the provider reported insufficient funds for {@code cost}. */
+    public void recordInsufficient(ThrottlePolicy policy, UUID id, ChargeConfig.Type type, double cost, long now) {
+        long window = policy.insufficientWindowNanos();
+        if (window <= 0L) return;
+
+        State s = states.computeIfAbsent(id, k -> new State());
+        int i = type.ordinal();
+        synchronized (s) {
+            s.insufficientUntil[i] = now + window;
+            s.insufficientCost[i] = cost;
+        }
+    }
+
+    /** Drops all state for a player (called on quit). */
+    public void forget(UUID id) {
+        states.remove(id);
+    }
+
+    /** Number of attempts rejected for {@code reason} on {@code type} since enable. */
+    public long rejections(Rejection reason, ChargeConfig.Type type) {
+        return rejections[reason.ordinal()][type.ordinal()].sum();
+    }
+}
@@ -0,0 +1,139 @@
+package dev.cwhead.GravesX.modules.economy.limit;
+
+import dev.cwhead.GravesX.modules.economy.ChargeConfig;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compiled {@code limits} config section: rolling window layout per
+ * {@link ChargeConfig.Type} plus default and per-group spending caps and free uses.
+ * <p>
+ * Limits are stored in arrays indexed by type ordinal; group {@code -1} is the default.
+ * A player belongs to the first group (in config order) whose
+ * {@code graves.economy.limit.<group>} permission they hold.
+ * </p>
+ */
+public final class LimitPolicy {
+
+    private static final ChargeConfig.Type[] TYPES = ChargeConfig.Type.values();
+    private static final String GROUP_PERMISSION = "graves.economy.limit.";
+
+    private final boolean enabled;
+    private final int buckets;
+    private final long[] bucketMillis;
+    private final double[] maxSpend;
+    private final int[] freeUses;
+    private final String[] groupPermissions;
+    private final double[][] groupMaxSpend;
+    private final int[][] groupFreeUses;
+
+    private LimitPolicy(boolean enabled, int buckets, long[] bucketMillis, double[] maxSpend, int[] freeUses,
+                        String[] groupPermissions, double[][] groupMaxSpend, int[][] groupFreeUses) {
+        this.enabled = enabled;
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+        this.maxSpend = maxSpend;
+        this.freeUses = freeUses;
+        this.groupPermissions = groupPermissions;
+        this.groupMaxSpend = groupMaxSpend;
+        this.groupFreeUses = groupFreeUses;
+    }
+
+    /**
+     * Compiles the {@code limits} section.
+     *
+     * @param section the {@code limits} section, may be {@code null} (limits disabled)
+     */
+    public static LimitPolicy compile(ConfigurationSection section) {
+        int n = TYPES.length;
+        long[] bucketMillis = new long[n];
+        double[] maxSpend = new double[n];
+        int[] freeUses = new int[n];
+
+        if (section == null) {
+            Arrays.fill(bucketMillis, 1L);
+            return new LimitPolicy(false, 1, bucketMillis, maxSpend, freeUses,
+                    new String[0], new double[0][], new int[0][]);
+        }
+
+        int buckets = Math.max(1, section.getInt("buckets", 12));
+        ConfigurationSection types = section.getConfigurationSection("types");
+        for (ChargeConfig.Type t : TYPES) {
+            ConfigurationSection ts = types == null ? null : types.getConfigurationSection(t.name());
+            long windowMillis = Math.max(1L, ts == null ? 3600L : ts.getLong("window", 3600L)) * 1000L;
+            bucketMillis[t.ordinal()] = Math.max(1L, windowMillis / buckets);
+            maxSpend[t.ordinal()] = ts == null ? 0.0 : Math.max(0.0, ts.getDouble("max-spend", 0.0));
+            freeUses[t.ordinal()] = ts == null ? 0 : Math.max(0, ts.getInt("free-uses", 0));
+        }
+
+        List<String> perms = new ArrayList<>();
+        List<double[]> groupSpend = new ArrayList<>();
+        List<int[]> groupFree = new ArrayList<>();
+        ConfigurationSection groups = section.getConfigurationSection("groups");
+        if (groups != null) {
+            for (String group : groups.getKeys(false)) {
+                ConfigurationSection gs = groups.getConfigurationSection(group);
+                if (gs == null) continue;
+                double[] spend = maxSpend.clone();
+                int[] free = freeUses.clone();
+                for (ChargeConfig.Type t : TYPES) {
+                    ConfigurationSection ts = gs.getConfigurationSection(t.name());
+                    if (ts == null) continue;
+                    spend[t.ordinal()] = Math.max(0.0, ts.getDouble("max-spend", spend[t.ordinal()]));
+                    free[t.ordinal()] = Math.max(0, ts.getInt("free-uses", free[t.ordinal()]));
+                }
+                perms.add(GROUP_PERMISSION + group.toLowerCase(Locale.ROOT));
+                groupSpend.add(spend);
+                groupFree.add(free);
+            }
+        }
+
+        return new LimitPolicy(section.getBoolean("enabled", false), buckets, bucketMillis, maxSpend, freeUses,
+                perms.toArray(new String[0]), groupSpend.toArray(new double[0][]), groupFree.toArray(new int[0][]));
+    }
+
+    /** Whether any limit is enforced. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Number of ring-buffer buckets per window. */
+    public int buckets() {
+        return buckets;
+    }
+
+    /** Width of one bucket for a type, in milliseconds. */
+    public long bucketMillis(ChargeConfig.Type t) {
+        return bucketMillis[t.ordinal()];
+    }
+
+    /**
+     * Identifies the bucket layout; counters recorded under a different layout are discarded.
+     */
+    public int layout() {
+        return 31 * buckets + Arrays.hashCode(bucketMillis);
+    }
+
+    /** Index of the first limit group the player belongs to, or {@code -1} for the defaults. */
+    public int groupOf(Player p) {
+        for (int i = 0; i < groupPermissions.length; i++) {
+            if (p.hasPermission(groupPermissions[i])) return i;
+        }
+        return -1;
+    }
+
+    /** Maximum spend per window for a group and type ({@code 0} = unlimited). */
+    public double maxSpend(int group, ChargeConfig.Type t) {
+        return group < 0 ? maxSpend[t.ordinal()] : groupMaxSpend[group][t.ordinal()];
+    }
+
+    /** Number of free uses per window for a group and type. */
+    public int freeUses(int group, ChargeConfig.Type t) {
+        return group < 0 ? freeUses[t.ordinal()] : groupFreeUses[group][t.ordinal()];
+    }
+}
@@ -0,0 +1,192 @@
+package dev.cwhead.GravesX.modules.economy.limit;
+
+import dev.cwhead.GravesX.modules.economy.ChargeConfig;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player rolling spend and use counters for every {@link ChargeConfig.Type}.
+ * <p>
+ * Each player owns three flat primitive arrays holding a ring buffer of time buckets
+ * per type ({@code types * buckets} slots). A slot is reused once its bucket epoch
+ * falls out of the window, so checks and updates touch a fixed number of slots
+ * regardless of history. Counters live only in memory and are snapshotted to disk
+ * by {@link #save(File, LimitPolicy)}.
+ * </p>
+ * <p>
+ * Creating, updating and evicting a player's counters all happen inside
+ * {@link ConcurrentHashMap#compute}-style calls, so a record from one region thread
+ * can never land in counters that a concurrent save has just dropped.
+ * </p>
+ */
+public final class SpendingLimits {
+
+    /** Result of {@link #check}. */
+    public enum Decision { CHARGE, FREE, OVER_LIMIT }
+
+    private static final int TYPES = ChargeConfig.Type.values().length;
+    private static final int MAGIC = 0x47584C4D; // "GXLM"
+
+    private final Map<UUID, Counters> counters = new ConcurrentHashMap<>();
+
+    /** Ring-buffer counters of one player. Guarded by its own monitor. */
+    private static final class Counters {
+        final int layout;
+        final int buckets;
+        final long[] epochs;
+        final double[] spent;
+        final int[] uses;
+
+        Counters(int layout, int buckets) {
+            this.layout = layout;
+            this.buckets = buckets;
+            this.epochs = new long[TYPES * buckets];
+            this.spent = new double[TYPES * buckets];
+            this.uses = new int[TYPES * buckets];
+        }
+    }
+
+    /**
+     * Decides whether a charge of {@code cost} is free, allowed, or over the player's cap.
+     * Does not record anything; call {@link #record} once the action goes through.
+     */
+    public Decision check(LimitPolicy policy, Player p, ChargeConfig.Type type, double cost) {
+        int group = policy.groupOf(p);
+        int freeUses = policy.freeUses(group, type);
+        double maxSpend = policy.maxSpend(group, type);
+        if (freeUses <= 0 && !(maxSpend > 0.0)) return Decision.CHARGE;
+
+        int uses = 0;
+        double spent = 0.0;
+        Counters c = counters.get(p.getUniqueId());
+        if (c != null && c.layout == policy.layout()) {
+            long epoch = System.currentTimeMillis() / policy.bucketMillis(type);
+            int base = type.ordinal() * c.buckets;
+            synchronized (c) {
+                for (int i = 0; i < c.buckets; i++) {
+                    if (epoch - c.epochs[base + i] < c.buckets) {
+                        uses += c.uses[base + i];
+                        spent += c.spent[base + i];
+                    }
+                }
+            }
+        }
+
+        if (uses < freeUses) return Decision.FREE;
+        if (maxSpend > 0.0 && spent + cost > maxSpend) return Decision.OVER_LIMIT;
+        return Decision.CHARGE;
+    }
+
+    /** Adds one use and {@code amount} spent to the current bucket. */
+    public void record(LimitPolicy policy, UUID player, ChargeConfig.Type type, double amount) {
+        int layout = policy.layout();
+        long epoch = System.currentTimeMillis() / policy.bucketMillis(type);
+
+        counters.compute(player, (id, c) -> {
+            // First use, or the window layout changed on reload: start from empty buckets.
+            if (c == null || c.layout != layout) c = new Counters(layout, policy.buckets());
+            int slot = type.ordinal() * c.buckets + (int) Math.floorMod(epoch, (long) c.buckets);
+
+            synchronized (c) {
+                if (c.epochs[slot] != epoch) {
+                    c.epochs[slot] = epoch;
+                    c.spent[slot] = 0.0;
+                    c.uses[slot] = 0;
+                }
+                c.uses[slot]++;
+                c.spent[slot] += amount;
+            }
+            return c;
+        });
+    }
+
+    /**
+     * Writes all counters to {@code file} via a temporary file and an atomic move.
+     * Players whose buckets have all left the window are dropped first.
+     * Safe to call from an async thread.
+     */
+    public void save(File file, LimitPolicy policy) throws IOException {
+        long now = System.currentTimeMillis();
+        for (UUID id : counters.keySet()) {
+            counters.computeIfPresent(id, (k, c) -> isExpired(c, policy, now) ? null : c);
+        }
+
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(TYPES);
+            for (Map.Entry<UUID, Counters> e : counters.entrySet()) {
+                Counters c = e.getValue();
+                out.writeBoolean(true);
+                out.writeLong(e.getKey().getMostSignificantBits());
+                out.writeLong(e.getKey().getLeastSignificantBits());
+                out.writeInt(c.layout);
+                out.writeInt(c.buckets);
+                synchronized (c) {
+                    for (int i = 0; i < c.epochs.length; i++) {
+                        out.writeLong(c.epochs[i]);
+                        out.writeDouble(c.spent[i]);
+                        out.writeInt(c.uses[i]);
+                    }
+                }
+            }
+            out.writeBoolean(false);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static boolean isExpired(Counters c, LimitPolicy policy, long now) {
+        if (c.layout != policy.layout()) return true;
+        synchronized (c) {
+            for (ChargeConfig.Type t : ChargeConfig.Type.values()) {
+                long epoch = now / policy.bucketMillis(t);
+                int base = t.ordinal() * c.buckets;
+                for (int i = 0; i < c.buckets; i++) {
+                    if (epoch - c.epochs[base + i] < c.buckets) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Restores counters written by {@link #save(File, LimitPolicy)}. Missing files are ignored;
+     * entries recorded under another layout are discarded on first use.
+     */
+    public void load(File file) throws IOException {
+        if (!file.isFile()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != TYPES) {
+                throw new IOException("Unrecognised spending limit snapshot: " + file.getName());
+            }
+            while (in.readBoolean()) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                int layout = in.readInt();
+                int buckets = in.readInt();
+                if (buckets < 1 || buckets > 100_000) {
+                    throw new IOException("Corrupt spending limit snapshot: " + file.getName());
+                }
+                Counters c = new Counters(layout, buckets);
+                for (int i = 0; i < c.epochs.length; i++) {
+                    c.epochs[i] = in.readLong();
+                    c.spent[i] = in.readDouble();
+                    c.uses[i] = in.readInt();
+                }
+                counters.put(id, c);
+            }
+        }
+    }
+}
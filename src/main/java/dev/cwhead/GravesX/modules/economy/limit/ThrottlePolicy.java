@@ -0,0 +1,77 @@
+package dev.cwhead.GravesX.modules.economy.limit;
+
+import dev.cwhead.GravesX.modules.economy.ChargeConfig;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Compiled {@code throttle} config section: token bucket refill rate and burst per
+ * {@link ChargeConfig.Type}, plus how long an "insufficient funds" result is reused.
+ * <p>
+ * Top-level {@code refill-per-second} and {@code burst} are the defaults; entries under
+ * {@code types.<TYPE>} override them for one type.
+ * </p>
+ */
+public final class ThrottlePolicy {
+
+    private static final ChargeConfig.Type[] TYPES = ChargeConfig.Type.values();
+
+    private final boolean enabled;
+    private final double[] tokensPerNano;
+    private final double[] burst;
+    private final long insufficientWindowNanos;
+
+    private ThrottlePolicy(boolean enabled, double[] tokensPerNano, double[] burst, long insufficientWindowNanos) {
+        this.enabled = enabled;
+        this.tokensPerNano = tokensPerNano;
+        this.burst = burst;
+        this.insufficientWindowNanos = insufficientWindowNanos;
+    }
+
+    /**
+     * Compiles the {@code throttle} section.
+     *
+     * @param section the {@code throttle} section, may be {@code null} (throttle disabled)
+     */
+    public static ThrottlePolicy compile(ConfigurationSection section) {
+        int n = TYPES.length;
+        double[] tokensPerNano = new double[n];
+        double[] burst = new double[n];
+
+        if (section == null) {
+            return new ThrottlePolicy(false, tokensPerNano, burst, 0L);
+        }
+
+        double defaultRate = Math.max(0.01, section.getDouble("refill-per-second", 1.0));
+        double defaultBurst = Math.max(1.0, section.getDouble("burst", 5.0));
+        ConfigurationSection types = section.getConfigurationSection("types");
+        for (ChargeConfig.Type t : TYPES) {
+            ConfigurationSection ts = types == null ? null : types.getConfigurationSection(t.name());
+            double rate = ts == null ? defaultRate : Math.max(0.01, ts.getDouble("refill-per-second", defaultRate));
+            tokensPerNano[t.ordinal()] = rate / 1_000_000_000.0;
+            burst[t.ordinal()] = ts == null ? defaultBurst : Math.max(1.0, ts.getDouble("burst", defaultBurst));
+        }
+
+        long windowMillis = Math.max(0L, section.getLong("insufficient-cache-millis", 2000L));
+        return new ThrottlePolicy(section.getBoolean("enabled", false), tokensPerNano, burst, windowMillis * 1_000_000L);
+    }
+
+    /** Whether attempts are throttled at all. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Tokens added per nanosecond for a type. */
+    public double tokensPerNano(ChargeConfig.Type t) {
+        return tokensPerNano[t.ordinal()];
+    }
+
+    /** Bucket capacity for a type. */
+    public double burst(ChargeConfig.Type t) {
+        return burst[t.ordinal()];
+    }
+
+    /** How long an "insufficient funds" result is reused without asking the provider, in nanoseconds ({@code 0} = off). */
+    public long insufficientWindowNanos() {
+        return insufficientWindowNanos;
+    }
+}
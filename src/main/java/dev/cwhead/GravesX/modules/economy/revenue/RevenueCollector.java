@@ -0,0 +1,291 @@
+package dev.cwhead.GravesX.modules.economy.revenue;
+
+import com.github.Anon8281.universalScheduler.scheduling.schedulers.TaskScheduler;
+import dev.cwhead.GravesX.modules.economy.ChargeConfig;
+import dev.cwhead.GravesX.modules.economy.EconomyRuntime;
+import dev.cwhead.GravesX.modules.economy.currency.CurrencyProvider;
+import net.milkbowl.vault.economy.EconomyResponse;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.bukkit.OfflinePlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Accumulates collected grave fees per {@link RevenueSink} and pays them out in batches.
+ * <p>
+ * Each sink has a small array of fixed-point {@link AtomicLong} stripes ({@link #SCALE}
+ * units per 1.0) selected by thread, so charges on different region threads never
+ * contend. {@link #flush} drains every sink with {@code getAndSet(0)} into a batch and
+ * makes one deposit per sink; failed deposits are added back and retried on the next flush.
+ * Totals of a sink no longer configured (its account or currency changed on reload)
+ * can never be paid and are dropped with a warning.
+ * </p>
+ * <p>
+ * Outstanding totals are written to a snapshot by {@link #save()}, which only runs
+ * off the main thread (and on shutdown), and restored by {@link #load()}. A flush hands
+ * the drained batch to an async save and only deposits once the snapshot without it is
+ * on disk, so a crash in between can lose at most that one batch but never pays it twice.
+ * </p>
+ * <p>
+ * Fees are deposited into player accounts; Vault bank accounts are not supported.
+ * </p>
+ */
+public final class RevenueCollector {
+
+    /** Fixed-point units per 1.0 of currency. */
+    static final long SCALE = 10_000L;
+
+    private static final int MAGIC = 0x47585256; // "GXRV"
+    private static final ChargeConfig.Type[] TYPES = ChargeConfig.Type.values();
+
+    private final Map<RevenueSink, AtomicLong[]> outstanding = new ConcurrentHashMap<>();
+    /** Batch drained by {@link #flush} whose deposits have not run yet; at most one at a time. */
+    private final AtomicReference<Batch> inFlight = new AtomicReference<>();
+    /** Sinks whose last deposit failed; keeps a lasting outage to one warning. */
+    private final Set<RevenueSink> failing = ConcurrentHashMap.newKeySet();
+    private final int stripeMask;
+    private final File file;
+    /** Set whenever a total changes; lets the periodic save skip idle intervals. */
+    private volatile boolean dirty;
+
+    /**
+     * @param file snapshot of outstanding totals ({@code revenue.dat})
+     */
+    public RevenueCollector(File file) {
+        this.file = file;
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.stripeMask = Math.max(1, stripes) - 1;
+    }
+
+    /** Adds a collected fee to the type's sink, if revenue is enabled for it. */
+    public void collect(RevenuePolicy policy, ChargeConfig.Type type, double amount) {
+        RevenueSink sink = policy.sink(type);
+        if (sink == null || !(amount > 0.0)) return;
+        add(sink, Math.round(amount * SCALE), (int) Thread.currentThread().getId() & stripeMask);
+    }
+
+    private void add(RevenueSink sink, long units, int stripe) {
+        outstanding.computeIfAbsent(sink, k -> newStripes())[stripe].addAndGet(units);
+        if (!dirty) dirty = true; // read first: avoids a shared write on every charge
+    }
+
+    private AtomicLong[] newStripes() {
+        AtomicLong[] stripes = new AtomicLong[stripeMask + 1];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new AtomicLong();
+        return stripes;
+    }
+
+    /** Amount collected for a sink and not yet deposited. */
+    public double outstanding(RevenueSink sink) {
+        AtomicLong[] stripes = outstanding.get(sink);
+        return stripes == null ? 0.0 : sum(stripes) / (double) SCALE;
+    }
+
+    /** Totals drained from the sinks and not yet deposited. */
+    private record Batch(List<RevenueSink> sinks, List<Long> units) {
+    }
+
+    /**
+     * Periodic flush: drains everything outstanding, saves the snapshot without the
+     * drained totals on an async thread, and then deposits them on the global thread.
+     * Skipped while the previous batch is still in flight.
+     */
+    public void flush(TaskScheduler scheduler, EconomyRuntime runtime, Logger logger) {
+        if (runtime == null || !runtime.isHooked() || inFlight.get() != null) return;
+        Batch batch = drain();
+        if (batch == null || !inFlight.compareAndSet(null, batch)) {
+            if (batch != null) restore(batch);
+            return;
+        }
+        scheduler.runTaskAsynchronously(() -> {
+            if (save(logger)) {
+                scheduler.runTask(() -> pay(batch, runtime, logger));
+            } else if (inFlight.compareAndSet(batch, null)) {
+                restore(batch);
+            }
+        });
+    }
+
+    /**
+     * Shutdown flush on the calling thread: takes back a batch still in flight, drains,
+     * saves, deposits and saves the remainder. The file is written synchronously.
+     */
+    public void flushNow(EconomyRuntime runtime, Logger logger) {
+        Batch pending = inFlight.getAndSet(null);
+        if (pending != null) restore(pending);
+
+        if (runtime != null && runtime.isHooked()) {
+            Batch batch = drain();
+            if (batch != null) {
+                inFlight.set(batch);
+                if (save(logger)) {
+                    pay(batch, runtime, logger);
+                } else if (inFlight.compareAndSet(batch, null)) {
+                    restore(batch);
+                }
+            }
+        }
+        save(logger);
+    }
+
+    private Batch drain() {
+        List<RevenueSink> sinks = new ArrayList<>();
+        List<Long> drained = new ArrayList<>();
+        for (Map.Entry<RevenueSink, AtomicLong[]> e : outstanding.entrySet()) {
+            long units = 0L;
+            for (AtomicLong stripe : e.getValue()) units += stripe.getAndSet(0L);
+            if (units == 0L) continue;
+            sinks.add(e.getKey());
+            drained.add(units);
+        }
+        return sinks.isEmpty() ? null : new Batch(sinks, drained);
+    }
+
+    private void restore(Batch batch) {
+        for (int i = 0; i < batch.sinks().size(); i++) add(batch.sinks().get(i), batch.units().get(i), 0);
+    }
+
+    /**
+     * Deposits a saved batch, one deposit per sink, through the provider of the sink's
+     * currency. Must run where the economy may be called (main / global thread). Does
+     * nothing if the batch was already taken back by {@link #flushNow}.
+     */
+    private void pay(Batch batch, EconomyRuntime runtime, Logger logger) {
+        if (!inFlight.compareAndSet(batch, null)) return;
+        if (!runtime.isHooked()) {
+            restore(batch);
+            return;
+        }
+        RevenuePolicy policy = runtime.get().revenue();
+
+        for (int i = 0; i < batch.sinks().size(); i++) {
+            RevenueSink sink = batch.sinks().get(i);
+            long units = batch.units().get(i);
+            double amount = units / (double) SCALE;
+
+            if (!policy.isConfigured(sink)) {
+                outstanding.remove(sink);
+                failing.remove(sink);
+                dirty = true;
+                logger.warning("[Economy-Vault] Dropping " + amount + " revenue owed to " + sink.account()
+                        + " (currency '" + sink.currency() + "'): no type pays into that account and currency any more.");
+                continue;
+            }
+
+            OfflinePlayer account = policy.account(sink.account());
+            if (account == null) {
+                // Still resolving (or the lookup failed); keep the total and try again.
+                add(sink, units, 0);
+                continue;
+            }
+
+            CurrencyProvider provider = providerFor(runtime, sink.currency());
+            // Whole-unit backends (PlayerPoints) credit less than the total; the remainder stays outstanding.
+            long payable = provider == null ? units : Math.min(units, Math.round(provider.depositable(amount) * SCALE));
+            if (payable <= 0L) {
+                add(sink, units, 0);
+                continue;
+            }
+            EconomyResponse r = provider == null ? null : provider.deposit(account, payable / (double) SCALE);
+            if (r != null && r.transactionSuccess()) {
+                if (payable < units) add(sink, units - payable, 0);
+                failing.remove(sink);
+                continue;
+            }
+
+            add(sink, units, 0);
+            if (failing.add(sink)) {
+                logger.warning("[Economy-Vault] Could not pay " + amount + " revenue to " + sink.account()
+                        + " (currency '" + sink.currency() + "'): "
+                        + (r == null ? "currency not available" : r.errorMessage) + ". Retrying every flush.");
+            }
+        }
+    }
+
+    private static CurrencyProvider providerFor(EconomyRuntime runtime, String currency) {
+        ChargeConfig cfg = runtime.get();
+        for (ChargeConfig.Type t : TYPES) {
+            if (!cfg.currencySpec(t).id().equals(currency)) continue;
+            CurrencyProvider provider = runtime.provider(t);
+            if (provider != null) return provider;
+        }
+        return null;
+    }
+
+    /** Periodic save: writes the totals only if something changed since the last save. */
+    public void saveIfChanged(Logger logger) {
+        if (dirty) save(logger);
+    }
+
+    /**
+     * Writes the outstanding totals; logs instead of throwing so timers keep running.
+     *
+     * @return whether the snapshot was written
+     */
+    public boolean save(Logger logger) {
+        try {
+            save();
+            return true;
+        } catch (IOException e) {
+            logger.warning("[Economy-Vault] Could not save outstanding revenue: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /** Writes the outstanding totals to the snapshot file. */
+    public synchronized void save() throws IOException {
+        dirty = false;
+        File folder = file.getParentFile();
+        if (folder != null && !folder.exists()) folder.mkdirs();
+
+        File tmp = new File(folder, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            for (Map.Entry<RevenueSink, AtomicLong[]> e : outstanding.entrySet()) {
+                long units = sum(e.getValue());
+                if (units == 0L) continue;
+                out.writeBoolean(true);
+                out.writeUTF(e.getKey().account());
+                out.writeUTF(e.getKey().currency());
+                out.writeLong(units);
+            }
+            out.writeBoolean(false);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Restores outstanding totals saved by a previous run. */
+    public void load() throws IOException {
+        if (!file.isFile()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Unrecognised revenue snapshot: " + file.getName());
+            while (in.readBoolean()) {
+                RevenueSink sink = new RevenueSink(in.readUTF(), in.readUTF());
+                add(sink, in.readLong(), 0);
+            }
+        }
+    }
+
+    private static long sum(AtomicLong[] stripes) {
+        long total = 0L;
+        for (AtomicLong stripe : stripes) total += stripe.get();
+        return total;
+    }
+}
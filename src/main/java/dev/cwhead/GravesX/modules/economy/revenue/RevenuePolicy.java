@@ -0,0 +1,90 @@
+package dev.cwhead.GravesX.modules.economy.revenue;
+
+import dev.cwhead.GravesX.modules.economy.ChargeConfig;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Compiled {@code revenue} config section: the {@link RevenueSink} each
+ * {@link ChargeConfig.Type} pays into.
+ * <p>
+ * The top-level {@code account} applies to every type; {@code types.<TYPE>.account}
+ * overrides it, and an empty account leaves that type's fees uncollected.
+ * </p>
+ * <p>
+ * Each account is resolved once, off-thread, when the section is compiled, so a
+ * name that is not in the profile cache never blocks the flush on a lookup.
+ * </p>
+ */
+public final class RevenuePolicy {
+
+    private static final ChargeConfig.Type[] TYPES = ChargeConfig.Type.values();
+
+    private final boolean enabled;
+    private final RevenueSink[] sinks;
+    private final Map<String, CompletableFuture<OfflinePlayer>> accounts;
+
+    private RevenuePolicy(boolean enabled, RevenueSink[] sinks) {
+        this.enabled = enabled;
+        this.sinks = sinks;
+        this.accounts = new HashMap<>();
+        for (RevenueSink sink : sinks) {
+            if (sink == null) continue;
+            accounts.computeIfAbsent(sink.account(),
+                    a -> CompletableFuture.supplyAsync(() -> RevenueSink.resolve(a)));
+        }
+    }
+
+    /**
+     * Compiles the {@code revenue} section.
+     *
+     * @param section    the {@code revenue} section, may be {@code null} (revenue disabled)
+     * @param currencyOf currency id each type is charged in
+     */
+    public static RevenuePolicy compile(ConfigurationSection section, Function<ChargeConfig.Type, String> currencyOf) {
+        RevenueSink[] sinks = new RevenueSink[TYPES.length];
+        if (section == null) return new RevenuePolicy(false, sinks);
+
+        String defaultAccount = section.getString("account", "");
+        ConfigurationSection types = section.getConfigurationSection("types");
+        for (ChargeConfig.Type t : TYPES) {
+            ConfigurationSection ts = types == null ? null : types.getConfigurationSection(t.name());
+            String account = ts == null ? defaultAccount : ts.getString("account", defaultAccount);
+            if (account == null || account.isBlank()) continue;
+            sinks[t.ordinal()] = new RevenueSink(account.trim(), currencyOf.apply(t));
+        }
+        return new RevenuePolicy(section.getBoolean("enabled", false), sinks);
+    }
+
+    /** Whether collected fees are paid out at all. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Sink for a type, or {@code null} if its fees are not collected. */
+    public RevenueSink sink(ChargeConfig.Type t) {
+        return enabled ? sinks[t.ordinal()] : null;
+    }
+
+    /** Whether any type still pays into this sink (same account and currency). */
+    public boolean isConfigured(RevenueSink sink) {
+        for (RevenueSink s : sinks) {
+            if (sink.equals(s)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Resolved receiving account, or {@code null} while the lookup is still running,
+     * if it failed, or if the account is not configured.
+     */
+    public OfflinePlayer account(String account) {
+        CompletableFuture<OfflinePlayer> f = accounts.get(account);
+        return f == null || !f.isDone() || f.isCompletedExceptionally() ? null : f.join();
+    }
+}
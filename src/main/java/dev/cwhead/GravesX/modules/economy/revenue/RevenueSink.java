@@ -0,0 +1,30 @@
+package dev.cwhead.GravesX.modules.economy.revenue;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+import java.util.UUID;
+
+/**
+ * Destination for collected grave fees: an account in one currency.
+ *
+ * @param account  player UUID or name of the receiving account (server bank, town NPC account, ...)
+ * @param currency id of the currency the fees were charged in (see {@code currencies})
+ */
+public record RevenueSink(String account, String currency) {
+
+    /**
+     * Resolves a receiving account. UUIDs resolve without any lookup; names use the
+     * server's profile cache first and may fall back to a blocking lookup, so this
+     * must not run on the main or a region thread (see {@link RevenuePolicy}).
+     */
+    @SuppressWarnings("deprecation")
+    static OfflinePlayer resolve(String account) {
+        try {
+            return Bukkit.getOfflinePlayer(UUID.fromString(account));
+        } catch (IllegalArgumentException notUuid) {
+            OfflinePlayer cached = Bukkit.getOfflinePlayerIfCached(account);
+            return cached != null ? cached : Bukkit.getOfflinePlayer(account);
+        }
+    }
+}
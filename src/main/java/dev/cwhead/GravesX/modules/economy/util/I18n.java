@@ -1,22 +1,72 @@
 package dev.cwhead.GravesX.modules.economy.util;
 
+import dev.cwhead.GravesX.modules.economy.jfr.I18nReloadEvent;
+import dev.cwhead.GravesX.modules.economy.jfr.TranslationMissEvent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Internationalization manager for GravesX modules.
+ * <p>
+ * Besides the raw strings, every template is compiled once per
+ * {@link #loadLanguages()} (legacy {@code &} codes or MiniMessage, see {@link Format}).
+ * Templates without {@code {token}} placeholders become a ready Adventure
+ * {@link Component}. In templates with placeholders each token is swapped for a
+ * private-use marker before parsing, and the parsed tree is split into styled
+ * fixed segments and token slots; {@link #render} only joins them, drawing each
+ * value as {@code Component.text(value, slotStyle)}, so nothing is parsed per send.
+ * </p>
  */
 public final class I18n {
 
+    /** Markup used by the language files. */
+    public enum Format {
+        LEGACY, MINIMESSAGE;
+
+        /** Parses a config value, defaulting to {@link #LEGACY}. */
+        public static Format of(String value) {
+            try {
+                return value == null ? LEGACY : valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                return LEGACY;
+            }
+        }
+    }
+
+    private static final Pattern TOKEN = Pattern.compile("\\{([A-Za-z0-9_]+)}");
+
+    /** Private-use character standing in for token {@code i} ({@code SLOT_BASE + i}) while a template is parsed. */
+    private static final char SLOT_BASE = '\uE000';
+
+    /** One piece of a compiled template: fixed content, or the slot of token index {@code token} drawn in {@code style}. */
+    private record Part(Component fixed, int token, Style style) {}
+
+    /**
+     * A compiled message: the ready component when it has no placeholders, otherwise
+     * the tokens that occur in it and its parts in order.
+     */
+    private record Template(Component component, String[] tokens, Part[] parts) {}
+
     private final File dataFolder;
     private final String defaultLanguage;
+    private volatile Format format;
     private final Map<String, Map<String, String>> translations = new HashMap<>();
+    private volatile Map<String, Map<String, Template>> templates = new HashMap<>();
 
     /**
      * @param dataFolder     the module's own data folder (ctx.getDataFolder()),
@@ -24,19 +74,38 @@ public final class I18n {
      * @param defaultLanguage locale key, e.g. "en_us"
      */
     public I18n(File dataFolder, String defaultLanguage) {
+        this(dataFolder, defaultLanguage, Format.LEGACY);
+    }
+
+    /**
+     * @param dataFolder     the module's own data folder (ctx.getDataFolder())
+     * @param defaultLanguage locale key, e.g. "en_us"
+     * @param format         markup used by the language files
+     */
+    public I18n(File dataFolder, String defaultLanguage, Format format) {
         this.dataFolder = dataFolder;
         this.defaultLanguage = (defaultLanguage == null ? "en_us" : defaultLanguage).toLowerCase();
+        this.format = format == null ? Format.LEGACY : format;
         loadLanguages();
     }
 
+    /** Sets the markup used by the next {@link #loadLanguages()}. */
+    public void setFormat(Format format) {
+        this.format = format == null ? Format.LEGACY : format;
+    }
+
     public void loadLanguages() {
+        I18nReloadEvent event = new I18nReloadEvent();
+        event.begin();
         File langFolder = new File(dataFolder, "languages");
         if (!langFolder.exists()) langFolder.mkdirs();
 
         File[] files = langFolder.listFiles((dir, name) -> name.endsWith(".yml"));
         if (files == null) return;
 
+        int messages = 0;
         translations.clear();
+        Map<String, Map<String, Template>> parsed = new HashMap<>();
 
         for (File f : files) {
             String localeKey = f.getName().replace(".yml", "").toLowerCase();
@@ -45,9 +114,79 @@ public final class I18n {
             Map<String, String> flat = new HashMap<>();
             flattenSection("", cfg, flat);
             translations.put(localeKey, flat);
+
+            Map<String, Template> compiled = new HashMap<>();
+            for (Map.Entry<String, String> e : flat.entrySet()) {
+                compiled.put(e.getKey(), compile(e.getValue()));
+            }
+            parsed.put(localeKey, compiled);
+            messages += compiled.size();
+        }
+
+        this.templates = parsed;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.format = format.name();
+            event.languages = parsed.size();
+            event.messages = messages;
+            event.commit();
         }
     }
 
+    private Template compile(String raw) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder marked = new StringBuilder(raw.length());
+        Matcher m = TOKEN.matcher(raw);
+        while (m.find()) {
+            int index = tokens.indexOf(m.group(1));
+            if (index < 0) {
+                index = tokens.size();
+                tokens.add(m.group(1));
+            }
+            m.appendReplacement(marked, "");
+            marked.append((char) (SLOT_BASE + index));
+        }
+        m.appendTail(marked);
+
+        Component component = parse(marked.toString());
+        if (tokens.isEmpty()) return new Template(component, new String[0], null);
+
+        List<Part> parts = new ArrayList<>();
+        split(component, Style.empty(), tokens.size(), parts);
+        return new Template(null, tokens.toArray(new String[0]), parts.toArray(new Part[0]));
+    }
+
+    private Component parse(String text) {
+        return switch (format) {
+            case MINIMESSAGE -> MiniMessage.miniMessage().deserialize(text);
+            case LEGACY -> LegacyComponentSerializer.legacyAmpersand().deserialize(text.replace('\u00A7', '&'));
+        };
+    }
+
+    /**
+     * Flattens a parsed template into parts, each carrying its fully inherited style,
+     * and cuts text content at the slot markers.
+     */
+    private static void split(Component c, Style inherited, int slots, List<Part> out) {
+        Style style = c.style().merge(inherited, Style.Merge.Strategy.IF_ABSENT_ON_TARGET);
+        if (c instanceof TextComponent text) {
+            String content = text.content();
+            int start = 0;
+            for (int i = 0; i < content.length(); i++) {
+                int slot = content.charAt(i) - SLOT_BASE;
+                if (slot < 0 || slot >= slots) continue;
+                if (i > start) out.add(new Part(Component.text(content.substring(start, i), style), -1, null));
+                out.add(new Part(null, slot, style));
+                start = i + 1;
+            }
+            if (start < content.length()) out.add(new Part(Component.text(content.substring(start), style), -1, null));
+        } else {
+            out.add(new Part(c.children(List.of()).style(style), -1, null));
+        }
+        for (Component child : c.children()) split(child, style, slots, out);
+    }
+
     /**
      * Recursively flattens a nested config into key->value strings.
      * Example: "graves.economy.teleport.charged"
@@ -76,7 +215,10 @@ public final class I18n {
         String lc = (locale == null || locale.isEmpty()) ? defaultLanguage : locale.toLowerCase();
 
         String msg = getTranslation(lc, key);
-        if (msg == null) msg = getTranslation(defaultLanguage, key);
+        if (msg == null) {
+            msg = getTranslation(defaultLanguage, key);
+            TranslationMissEvent.emit(key, lc, msg != null);
+        }
 
         if (msg == null) return key; // final fallback (your existing behavior)
 
@@ -88,6 +230,43 @@ public final class I18n {
         return msg;
     }
 
+    /**
+     * Returns the pre-parsed message for {@code key} with its placeholders filled,
+     * falling back to the default language.
+     *
+     * @return the component, or {@code null} if the key is missing in both languages
+     */
+    public Component render(String key, Map<String, String> placeholders, String locale) {
+        String lc = (locale == null || locale.isEmpty()) ? defaultLanguage : locale.toLowerCase();
+        Map<String, Map<String, Template>> all = this.templates;
+
+        Template t = lookup(all, lc, key);
+        if (t == null) {
+            t = lookup(all, defaultLanguage, key);
+            TranslationMissEvent.emit(key, lc, t != null);
+        }
+        if (t == null) return null;
+        if (t.parts() == null) return t.component();
+
+        TextComponent.Builder out = Component.text();
+        for (Part part : t.parts()) {
+            if (part.fixed() != null) {
+                out.append(part.fixed());
+                continue;
+            }
+            String token = t.tokens()[part.token()];
+            String value = placeholders == null ? null : placeholders.get(token);
+            // Unfilled tokens keep showing as {token}, as in translate().
+            out.append(Component.text(value != null ? value : "{" + token + "}", part.style()));
+        }
+        return out.build();
+    }
+
+    private static Template lookup(Map<String, Map<String, Template>> all, String locale, String key) {
+        Map<String, Template> map = all.get(locale);
+        return map == null ? null : map.get(key);
+    }
+
     private String getTranslation(String locale, String key) {
         Map<String, String> map = translations.get(locale);
         if (map == null) return null;
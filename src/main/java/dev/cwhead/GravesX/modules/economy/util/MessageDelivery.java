@@ -0,0 +1,102 @@
+package dev.cwhead.GravesX.modules.economy.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Delivers rendered messages to players on a per-key channel (chat, action bar, title).
+ * <p>
+ * Identical messages sent to the same player within one server tick are coalesced,
+ * so a burst of events produces a single line instead of chat spam. The window is
+ * tracked per player rather than globally: on Folia each player is only messaged
+ * from the region scheduler that owns them, so region threads never share or clear
+ * each other's state. Entries are dropped by {@link #forget(UUID)} when a player quits.
+ * </p>
+ */
+public final class MessageDelivery {
+
+    /** Where a message is shown. */
+    public enum Channel { CHAT, ACTION_BAR, TITLE, SUBTITLE, NONE }
+
+    /** Compiled {@code messages} config: default channel plus per-key overrides. */
+    public record Channels(Channel defaultChannel, Map<String, Channel> byKey) {
+
+        /** Channel for a message key. */
+        public Channel of(String key) {
+            return byKey.getOrDefault(key, defaultChannel);
+        }
+
+        /**
+         * Compiles the {@code messages} section. Keys under {@code channels} may be
+         * nested or dotted; both resolve to the full message key.
+         */
+        public static Channels compile(ConfigurationSection section) {
+            if (section == null) return new Channels(Channel.CHAT, Map.of());
+
+            Channel def = parse(section.getString("default-channel"), Channel.CHAT);
+            Map<String, Channel> byKey = new HashMap<>();
+            ConfigurationSection channels = section.getConfigurationSection("channels");
+            if (channels != null) {
+                for (String key : channels.getKeys(true)) {
+                    if (channels.isConfigurationSection(key)) continue;
+                    byKey.put(key, parse(channels.getString(key), def));
+                }
+            }
+            return new Channels(def, Map.copyOf(byKey));
+        }
+
+        private static Channel parse(String value, Channel fallback) {
+            if (value == null) return fallback;
+            try {
+                return Channel.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                return fallback;
+            }
+        }
+    }
+
+    /** Messages already shown to one player during {@code tick}. */
+    private record Recent(int tick, Set<Component> messages) {}
+
+    private final Map<UUID, Recent> recent = new ConcurrentHashMap<>();
+
+    /**
+     * Shows {@code message} to the player on {@code channel}, unless the same
+     * message was already shown to them during the current tick.
+     */
+    public void deliver(Player p, Channel channel, Component message) {
+        if (channel == Channel.NONE) return;
+
+        int now = Bukkit.getCurrentTick();
+        boolean[] fresh = new boolean[1];
+        recent.compute(p.getUniqueId(), (id, r) -> {
+            if (r == null || r.tick() != now) r = new Recent(now, ConcurrentHashMap.newKeySet());
+            fresh[0] = r.messages().add(message);
+            return r;
+        });
+        if (!fresh[0]) return;
+
+        switch (channel) {
+            case CHAT -> p.sendMessage(message);
+            case ACTION_BAR -> p.sendActionBar(message);
+            case TITLE -> p.showTitle(Title.title(message, Component.empty()));
+            case SUBTITLE -> p.showTitle(Title.title(Component.empty(), message));
+            default -> { }
+        }
+    }
+
+    /** Drops the coalescing state of a player (on quit). */
+    public void forget(UUID player) {
+        recent.remove(player);
+    }
+}
@@ -0,0 +1,106 @@
+package dev.cwhead.GravesX.modules.economy.util;
+
+import com.github.Anon8281.universalScheduler.scheduling.schedulers.TaskScheduler;
+import com.github.Anon8281.universalScheduler.scheduling.tasks.MyScheduledTask;
+import org.bukkit.entity.Player;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Per-tick queue for work that does not influence whether a grave action is allowed
+ * (messages, debug output, post-charge balance reads).
+ * <p>
+ * Event handlers only enqueue; a repeating task drains the queue once per tick and
+ * stops when the configured time budget is used up, leaving the rest for the next tick.
+ * On Folia the drain runs on the global region, so player-bound work is handed to the
+ * player's entity scheduler instead of being run inline.
+ * </p>
+ */
+public final class SideWorkQueue {
+
+    private static final boolean FOLIA = isFolia();
+
+    private final Queue<Item> queue = new ConcurrentLinkedQueue<>();
+    private final TaskScheduler scheduler;
+    private final LongSupplier budgetNanos;
+    private final Logger logger;
+    private MyScheduledTask task;
+
+    /** A queued unit of work, optionally bound to a player. */
+    private record Item(Player player, Runnable work) {}
+
+    /**
+     * @param scheduler   Folia-aware scheduler used for the drain task and entity dispatch
+     * @param budgetNanos time budget per tick, read on every drain so reloads apply immediately
+     * @param logger      receives failures of individual work items
+     */
+    public SideWorkQueue(TaskScheduler scheduler, LongSupplier budgetNanos, Logger logger) {
+        this.scheduler = scheduler;
+        this.budgetNanos = budgetNanos;
+        this.logger = logger;
+    }
+
+    /** Starts draining once per tick. */
+    public void start() {
+        if (task == null) task = scheduler.runTaskTimer(this::drain, 1L, 1L);
+    }
+
+    /** Stops the drain task and discards anything still queued. */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queue.clear();
+    }
+
+    /** Queues work that is not tied to a player. */
+    public void submit(Runnable work) {
+        queue.add(new Item(null, work));
+    }
+
+    /** Queues work that must run where the player may be touched (their region on Folia). */
+    public void submit(Player player, Runnable work) {
+        queue.add(new Item(player, work));
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + budgetNanos.getAsLong();
+        Item item;
+        while ((item = queue.poll()) != null) {
+            try {
+                run(item);
+            } catch (RuntimeException ex) {
+                // One failing message must not stall the rest of the queue.
+                logger.log(Level.WARNING, "[Economy-Vault] Deferred task failed", ex);
+            }
+            if (System.nanoTime() >= deadline) break;
+        }
+    }
+
+    private void run(Item item) {
+        if (item.player() == null) {
+            item.work().run();
+            return;
+        }
+        if (!item.player().isOnline()) return;
+        if (FOLIA) {
+            scheduler.runTask(item.player(), item.work());
+        } else {
+            item.work().run();
+        }
+    }
+
+    private static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}